@@ -0,0 +1,131 @@
+package com.parth.Backend.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps a local cache manager so every evict or clear is also broadcast on the
+ * {@link CacheInvalidationBus}. Cache keys aren't portable between nodes, so a remote
+ * invalidation clears the whole named cache; catalogue edits are rare enough for that.
+ */
+public class BroadcastingCacheManager implements CacheManager {
+    private final CacheManager delegate;
+    private final CacheInvalidationBus bus;
+    private final Map<String, BroadcastingCache> caches = new ConcurrentHashMap<>();
+
+    public BroadcastingCacheManager(CacheManager delegate, CacheInvalidationBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+        bus.subscribe(this::onRemoteInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        BroadcastingCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target != null ? caches.computeIfAbsent(name, n -> new BroadcastingCache(target, bus)) : null;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private void onRemoteInvalidation(CacheInvalidationEvent event) {
+        if (event.cacheName() == null) {
+            delegate.getCacheNames().forEach(name -> clearLocal(name));
+        } else {
+            clearLocal(event.cacheName());
+        }
+    }
+
+    private void clearLocal(String name) {
+        Cache target = delegate.getCache(name);
+        if (target != null) {
+            target.clear();
+        }
+    }
+
+    public static class BroadcastingCache implements Cache {
+        private final Cache target;
+        private final CacheInvalidationBus bus;
+
+        BroadcastingCache(Cache target, CacheInvalidationBus bus) {
+            this.target = target;
+            this.bus = bus;
+        }
+
+        public Cache getTarget() {
+            return target;
+        }
+
+        @Override
+        public String getName() {
+            return target.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return target.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return target.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return target.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return target.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            target.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return target.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            target.evict(key);
+            bus.publish(getName(), String.valueOf(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            boolean present = target.evictIfPresent(key);
+            bus.publish(getName(), String.valueOf(key));
+            return present;
+        }
+
+        @Override
+        public void clear() {
+            target.clear();
+            bus.publish(getName(), null);
+        }
+
+        @Override
+        public boolean invalidate() {
+            boolean hadEntries = target.invalidate();
+            bus.publish(getName(), null);
+            return hadEntries;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.parth.Backend.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts cache invalidations to the other backend instances. Listeners only see
+ * events published by other nodes; local caches are evicted by the caller itself.
+ */
+public interface CacheInvalidationBus {
+    void publish(String cacheName, String key);
+
+    void subscribe(Consumer<CacheInvalidationEvent> listener);
+}
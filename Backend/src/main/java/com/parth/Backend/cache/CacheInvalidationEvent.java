@@ -0,0 +1,8 @@
+package com.parth.Backend.cache;
+
+/**
+ * A cache entry (or a whole cache, when {@code key} is null) that changed on node {@code origin}.
+ * A null {@code cacheName} means every cache, and is used after a node may have missed events.
+ */
+public record CacheInvalidationEvent(String origin, String cacheName, String key) {
+}
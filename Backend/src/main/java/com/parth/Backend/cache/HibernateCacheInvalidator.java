@@ -0,0 +1,48 @@
+package com.parth.Backend.cache;
+
+import com.parth.Backend.config.CacheConfig;
+import com.parth.Backend.config.HibernateCacheConfig;
+import com.parth.Backend.model.Badge;
+import com.parth.Backend.model.Challenge;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the Hibernate second-level cache in step with edits made on other instances.
+ * Local edits already update it; the admin services' catalogue cache evictions are what
+ * reach the other nodes, so the matching entity regions are evicted alongside them.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheInvalidator {
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(this::onRemoteInvalidation);
+    }
+
+    void onRemoteInvalidation(CacheInvalidationEvent event) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (event.cacheName() == null) {
+            cache.evictAllRegions();
+        } else if (CacheConfig.CHALLENGES.equals(event.cacheName())) {
+            if (event.key() == null) {
+                cache.evictEntityData(Challenge.class);
+                cache.evictCollectionData(HibernateCacheConfig.CHALLENGE_TEST_CASES_REGION);
+            } else {
+                Long id = Long.valueOf(event.key());
+                cache.evictEntityData(Challenge.class, id);
+                cache.evictCollectionData(HibernateCacheConfig.CHALLENGE_TEST_CASES_REGION, id);
+            }
+        } else if (CacheConfig.BADGES.equals(event.cacheName())) {
+            // Badge edits only ever clear the whole catalogue cache
+            cache.evictEntityData(Badge.class);
+        }
+    }
+}
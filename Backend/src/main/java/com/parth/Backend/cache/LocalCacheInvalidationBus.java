@@ -0,0 +1,45 @@
+package com.parth.Backend.cache;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for single-instance deployments and tests. {@link #join()} creates another
+ * "node" on the same in-memory network, so multi-instance behaviour can be exercised
+ * without a database.
+ */
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<LocalCacheInvalidationBus> network;
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public LocalCacheInvalidationBus() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LocalCacheInvalidationBus(List<LocalCacheInvalidationBus> network) {
+        this.network = network;
+        network.add(this);
+    }
+
+    public LocalCacheInvalidationBus join() {
+        return new LocalCacheInvalidationBus(network);
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(nodeId, cacheName, key);
+        for (LocalCacheInvalidationBus node : network) {
+            if (node != this) {
+                node.listeners.forEach(listener -> listener.accept(event));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+}
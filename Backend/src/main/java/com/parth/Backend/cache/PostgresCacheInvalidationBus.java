@@ -0,0 +1,85 @@
+package com.parth.Backend.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus over Postgres LISTEN/NOTIFY, so replicas need nothing beyond the database they
+ * already share. Listening and publishing each hold one connection for the lifetime of the
+ * application, opened from {@code notifyDataSource} outside the request pool; see
+ * {@link PostgresNotifyChannel}.
+ */
+@Slf4j
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+    private static final String CHANNEL = "codekids_cache_invalidation";
+
+    private final ObjectMapper objectMapper;
+    private final PostgresNotifyChannel channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public PostgresCacheInvalidationBus(DataSource notifyDataSource, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Anything published while we weren't listening is lost, so start from empty caches
+        this.channel = new PostgresNotifyChannel(CHANNEL, "cache-invalidation", notifyDataSource,
+                this::handle, () -> dispatch(new CacheInvalidationEvent(null, null, null)));
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        try {
+            channel.publish(objectMapper.writeValueAsString(new CacheInvalidationEvent(nodeId, cacheName, key)));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to publish cache invalidation for {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        channel.start();
+    }
+
+    @Override
+    public void stop() {
+        channel.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return channel.isRunning();
+    }
+
+    private void handle(String payload) {
+        try {
+            CacheInvalidationEvent event = objectMapper.readValue(payload, CacheInvalidationEvent.class);
+            if (!nodeId.equals(event.origin())) {
+                dispatch(event);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation payload: {}", payload);
+        }
+    }
+
+    private void dispatch(CacheInvalidationEvent event) {
+        for (Consumer<CacheInvalidationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
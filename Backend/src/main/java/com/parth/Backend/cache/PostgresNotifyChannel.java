@@ -0,0 +1,157 @@
+package com.parth.Backend.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * One Postgres LISTEN/NOTIFY channel. A listener thread holds a connection that LISTENs
+ * and hands every payload to a callback, reconnecting after errors. Published payloads are
+ * queued and sent by a single publisher thread on its own connection, so publishing never
+ * blocks and never borrows from the request pool, which matters because callers publish
+ * from commit callbacks while still holding their transaction's pooled connection.
+ * Both connections are opened from {@code connectionSource}, which must not be the pool.
+ */
+@Slf4j
+public class PostgresNotifyChannel {
+    private static final int POLL_TIMEOUT_MS = 5000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+    private static final int PUBLISH_QUEUE_CAPACITY = 10000;
+
+    private final String channel;
+    private final String threadName;
+    private final DataSource connectionSource;
+    private final Consumer<String> onPayload;
+    private final Runnable onListening;
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>(PUBLISH_QUEUE_CAPACITY);
+
+    private volatile boolean running;
+    private Thread listenerThread;
+    private Thread publisherThread;
+
+    /**
+     * @param onListening run each time LISTEN is (re)established; anything sent while the
+     *                    listener was disconnected is lost, so callers resync here
+     */
+    public PostgresNotifyChannel(String channel, String threadName, DataSource connectionSource,
+                                 Consumer<String> onPayload, Runnable onListening) {
+        this.channel = channel;
+        this.threadName = threadName;
+        this.connectionSource = connectionSource;
+        this.onPayload = onPayload;
+        this.onListening = onListening;
+    }
+
+    public void publish(String payload) {
+        if (!outbox.offer(payload)) {
+            log.warn("Notify queue for {} is full, dropping a message", channel);
+        }
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = daemon(this::listen, threadName + "-listener");
+        publisherThread = daemon(this::sendQueued, threadName + "-publisher");
+    }
+
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = connectionSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                onListening.run();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        onPayload.accept(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Listener on {} lost its connection, retrying: {}", channel, e.getMessage());
+                if (!pauseBeforeReconnect()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void sendQueued() {
+        String pending = null;
+        while (running) {
+            // Auto-commit, so each notification is sent as soon as it's executed
+            try (Connection connection = connectionSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, channel);
+                while (running) {
+                    if (pending == null) {
+                        pending = outbox.take();
+                    }
+                    statement.setString(2, pending);
+                    statement.execute();
+                    pending = null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // The failed message stays pending and is sent once we reconnect
+                log.warn("Publisher on {} lost its connection, retrying: {}", channel, e.getMessage());
+                if (!pauseBeforeReconnect()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean pauseBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.parth.Backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parth.Backend.cache.BroadcastingCacheManager;
+import com.parth.Backend.cache.BroadcastingCacheManager.BroadcastingCache;
+import com.parth.Backend.cache.CacheInvalidationBus;
+import com.parth.Backend.cache.LocalCacheInvalidationBus;
+import com.parth.Backend.cache.PostgresCacheInvalidationBus;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String CHALLENGES = "challenges";
+    public static final String CHALLENGE_PAGES = "challengePages";
+    public static final String BADGES = "badges";
+
+    @Value("${cache.catalogue.spec}")
+    private String catalogueSpec;
+
+    @Bean
+    public CacheManager cacheManager(CacheInvalidationBus cacheInvalidationBus) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(CHALLENGES, CHALLENGE_PAGES, BADGES);
+        caffeineCacheManager.setCacheSpecification(catalogueSpec);
+        // Evictions from admin edits are applied after commit, so a concurrent read can't re-cache the old row
+        return new TransactionAwareCacheManagerProxy(
+            new BroadcastingCacheManager(caffeineCacheManager, cacheInvalidationBus));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+    public CacheInvalidationBus postgresCacheInvalidationBus(DataSource dataSource, ObjectMapper objectMapper)
+            throws SQLException {
+        return new PostgresCacheInvalidationBus(notifyDataSource(dataSource), objectMapper);
+    }
+
+    // LISTEN holds its connection for good, and NOTIFY is sent from commit callbacks while the request
+    // still holds its own connection, so both connect directly instead of taking one from the pool
+    static DataSource notifyDataSource(DataSource dataSource) throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        PGSimpleDataSource notifyDataSource = new PGSimpleDataSource();
+        notifyDataSource.setUrl(pool.getJdbcUrl());
+        notifyDataSource.setUser(pool.getUsername());
+        notifyDataSource.setPassword(pool.getPassword());
+        return notifyDataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "local")
+    public CacheInvalidationBus localCacheInvalidationBus() {
+        return new LocalCacheInvalidationBus();
+    }
+
+    // Keeps the Caffeine hit/miss metrics visible through the broadcasting wrapper
+    @Bean
+    public CacheMeterBinderProvider<BroadcastingCache> broadcastingCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+        return new CacheMeterBinderProvider<>() {
+            @Override
+            public MeterBinder getMeterBinder(BroadcastingCache cache, Iterable<Tag> tags) {
+                return cache.getTarget() instanceof CaffeineCache caffeineCache
+                    ? caffeine.getMeterBinder(caffeineCache, tags)
+                    : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.parth.Backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class GradingConfig {
+
+    // Bounded on both threads and queue: a burst is spread across cores and anything
+    // beyond the queue is rejected instead of piling up in memory
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor gradingExecutor(
+            @Value("${grading.pool-size:0}") int poolSize,
+            @Value("${grading.queue-capacity:1000}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("grading-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Runs whole submissions (load, grade, apply); each worker mostly waits on the grading pool
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor submissionExecutor(
+            @Value("${grading.submission-workers:0}") int workers,
+            @Value("${grading.submission-queue-capacity:1000}") int queueCapacity) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors() * 2;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("submission-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
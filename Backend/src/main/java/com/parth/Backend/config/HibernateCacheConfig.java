@@ -0,0 +1,50 @@
+package com.parth.Backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.parth.Backend.model.Badge;
+import com.parth.Backend.model.Challenge;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Second-level cache regions for the read-mostly entities. Every region is created here with
+ * a bound, and Hibernate is set to fail on any other, so nothing can be cached unbounded by
+ * accident.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String CHALLENGE_REGION = Challenge.class.getName();
+    public static final String CHALLENGE_TEST_CASES_REGION = CHALLENGE_REGION + ".testCases";
+    public static final String BADGE_REGION = Badge.class.getName();
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${cache.entity.max-size:5000}") long maxSize,
+            @Value("${cache.entity.expire-after-write:1h}") Duration expireAfterWrite) {
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        for (String region : List.of(CHALLENGE_REGION, CHALLENGE_TEST_CASES_REGION, BADGE_REGION)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            // Hibernate stores its own immutable entries, so copying them on every read is wasted work
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
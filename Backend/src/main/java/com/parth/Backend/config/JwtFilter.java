@@ -1,13 +1,16 @@
 package com.parth.Backend.config;
 
+import com.parth.Backend.model.UserPrincipal;
 import com.parth.Backend.service.JWTService;
 import com.parth.Backend.service.MyUserDetailsService;
+import com.parth.Backend.service.TokenVersionRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,29 +24,55 @@ import java.io.IOException;
 @Component
 @RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
+    // EventSource can't set headers, so the stream alone also accepts a stream token in the URL
+    static final String STREAM_PATH = "/api/leaderboard/stream";
+    static final String STREAM_TOKEN_PARAM = "stream_token";
+
     private final JWTService jwtService;
     private final MyUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersions;
+
+    // Opt-in: trust the user id and role in the token instead of loading the user per request
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
             throws ServletException, IOException {
         try {
             String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            boolean fromStreamParam = false;
+            String token = null;
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                token = authHeader.substring(7);
+            } else if (isStreamRequest(request)) {
+                token = request.getParameter(STREAM_TOKEN_PARAM);
+                fromStreamParam = true;
+            }
+            if (token == null || SecurityContextHolder.getContext().getAuthentication() != null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            String token = authHeader.substring(7);
-            String username = jwtService.extractUserName(token);
+            // Stream tokens are only good for the stream, and session tokens never go in a URL
+            if (jwtService.isStreamToken(token) != fromStreamParam) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtService.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+            UserPrincipal principal = statelessPrincipal ? jwtService.toStatelessPrincipal(token) : null;
+            if (principal != null) {
+                // Signature and expiry were verified while reading the claims
+                if (tokenVersions.isCurrent(principal.getUser().getId(), principal.getUser().getTokenVersion())) {
+                    authenticate(request, principal);
+                }
+            } else {
+                String username = jwtService.extractUserName(token);
+                if (username != null) {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    if (jwtService.validateToken(token, userDetails)) {
+                        authenticate(request, userDetails);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -52,4 +81,16 @@ public class JwtFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod())
+                && (request.getContextPath() + STREAM_PATH).equals(request.getRequestURI());
+    }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
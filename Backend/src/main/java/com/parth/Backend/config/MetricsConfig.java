@@ -0,0 +1,63 @@
+package com.parth.Backend.config;
+
+import com.parth.Backend.metrics.RequestQueryMetricsFilter;
+import com.parth.Backend.metrics.RequestQueryTracker;
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed and @Counted on service methods
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public CountedAspect countedAspect(MeterRegistry meterRegistry) {
+        return new CountedAspect(meterRegistry);
+    }
+
+    // Static so wrapping the DataSource doesn't pull this configuration in early
+    @Bean
+    public static BeanPostProcessor queryTrackingDataSourcePostProcessor(ObjectProvider<RequestQueryTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(tracker.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Ahead of security, so statements run while authenticating count towards the request
+    @Bean
+    public FilterRegistrationBean<RequestQueryMetricsFilter> requestQueryMetricsFilter(
+            RequestQueryTracker tracker,
+            MeterRegistry meterRegistry,
+            @Value("${query-tracking.max-statements:30}") int maxStatements,
+            @Value("${query-tracking.repeated-statement-threshold:5}") int repeatedStatementThreshold,
+            @Value("${query-tracking.response-headers:false}") boolean responseHeaders) {
+        FilterRegistrationBean<RequestQueryMetricsFilter> registration = new FilterRegistrationBean<>(
+                new RequestQueryMetricsFilter(tracker, meterRegistry, maxStatements, repeatedStatementThreshold, responseHeaders));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
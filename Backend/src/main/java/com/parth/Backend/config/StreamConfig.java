@@ -0,0 +1,45 @@
+package com.parth.Backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parth.Backend.stream.LeaderboardStreamRelay;
+import com.parth.Backend.stream.LocalLeaderboardStreamRelay;
+import com.parth.Backend.stream.PostgresLeaderboardStreamRelay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class StreamConfig {
+
+    // Writes buffered SSE messages so one slow client can't hold up the flush for everyone else
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor streamExecutor(
+            @Value("${leaderboard.stream.send-threads:4}") int threads,
+            @Value("${leaderboard.stream.send-queue-capacity:10000}") int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("leaderboard-stream-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "leaderboard.stream.relay", havingValue = "postgres", matchIfMissing = true)
+    public LeaderboardStreamRelay postgresLeaderboardStreamRelay(DataSource dataSource, ObjectMapper objectMapper)
+            throws SQLException {
+        return new PostgresLeaderboardStreamRelay(CacheConfig.notifyDataSource(dataSource), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "leaderboard.stream.relay", havingValue = "local")
+    public LeaderboardStreamRelay localLeaderboardStreamRelay() {
+        return new LocalLeaderboardStreamRelay();
+    }
+}
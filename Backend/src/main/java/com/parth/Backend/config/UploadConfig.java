@@ -0,0 +1,37 @@
+package com.parth.Backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class UploadConfig {
+
+    // Image host calls run here, after the request's transaction has committed. Requests
+    // reserve a slot first (BackgroundUploadService), so a full pool is refused with 503
+    // before commit and the committing thread never uploads itself
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor uploadExecutor(
+            @Value("${uploads.threads:2}") int threads,
+            @Value("${uploads.queue-capacity:100}") int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("upload-");
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Image decoding and resizing is CPU-bound, so it gets its own small pool
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor imageExecutor(
+            @Value("${uploads.image-threads:0}") int threads,
+            @Value("${uploads.image-queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("image-");
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
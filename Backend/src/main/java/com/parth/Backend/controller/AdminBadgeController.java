@@ -1,5 +1,6 @@
 package com.parth.Backend.controller;
 
+import com.parth.Backend.dto.BadgeAwardSummaryDto;
 import com.parth.Backend.model.Badge;
 import com.parth.Backend.service.BadgeService;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/badges")
 @RequiredArgsConstructor
@@ -35,6 +38,15 @@ public class AdminBadgeController {
         return ResponseEntity.ok(badgeService.updateBadge(id, badge));
     }
 
+    // Body is a JSON array of user ids (capped by badges.bulk-award.max-users); unknown users and
+    // existing holders are skipped
+    @PostMapping("/{id}/award")
+    public ResponseEntity<BadgeAwardSummaryDto> awardBadge(
+            @PathVariable Long id,
+            @RequestBody List<Long> userIds) {
+        return ResponseEntity.ok(badgeService.awardBadgeToUsers(id, userIds));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBadge(@PathVariable Long id) {
         badgeService.deleteBadge(id);
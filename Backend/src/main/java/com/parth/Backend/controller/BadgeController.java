@@ -1,7 +1,7 @@
 package com.parth.Backend.controller;
 
+import com.parth.Backend.dto.UserBadgeDto;
 import com.parth.Backend.model.Badge;
-import com.parth.Backend.model.UserBadge;
 import com.parth.Backend.service.BadgeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -22,7 +22,7 @@ public class BadgeController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<UserBadge>> getUserBadges(@PathVariable Long userId) {
+    public ResponseEntity<List<UserBadgeDto>> getUserBadges(@PathVariable Long userId) {
         return ResponseEntity.ok(badgeService.getUserBadges(userId));
     }
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.parth.Backend.controller;
 
+import com.parth.Backend.config.CurrentUserId;
+import com.parth.Backend.dto.CursorSlice;
 import com.parth.Backend.dto.LeaderboardEntryDto;
+import com.parth.Backend.model.UserPrincipal;
+import com.parth.Backend.service.JWTService;
 import com.parth.Backend.service.LeaderboardService;
+import com.parth.Backend.service.LeaderboardStreamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/leaderboard")
@@ -14,6 +24,8 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin(origins = "http://localhost:5173")
 public class LeaderboardController {
     private final LeaderboardService leaderboardService;
+    private final LeaderboardStreamService leaderboardStreamService;
+    private final JWTService jwtService;
 
     @GetMapping
     public ResponseEntity<Page<LeaderboardEntryDto>> getLeaderboard(
@@ -22,8 +34,37 @@ public class LeaderboardController {
         return ResponseEntity.ok(leaderboardService.getLeaderboard(country, pageable));
     }
 
+    // Cursor-paginated alternative to the page endpoint; pass nextCursor back to continue
+    @GetMapping("/slice")
+    public ResponseEntity<CursorSlice<LeaderboardEntryDto>> getLeaderboardSlice(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboardSlice(country, cursor, size));
+    }
+
+    // Pushes "ranks" deltas for everyone and "verdict" events for the caller's own submissions.
+    // Browsers first POST /stream-token (with the usual Authorization header), then open
+    // new EventSource("/api/leaderboard/stream?stream_token=...") within a minute. EventSource's own
+    // reconnect reuses the expired token and stops at the 401, so on "error" clients close it,
+    // fetch a fresh token and open a new one
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@CurrentUserId Long userId) {
+        return leaderboardStreamService.subscribe(userId);
+    }
+
+    @PostMapping("/stream-token")
+    public ResponseEntity<Map<String, String>> streamToken(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(Map.of("token", jwtService.generateStreamToken(principal.getUser())));
+    }
+
     @GetMapping("/user/{userId}/rank")
     public ResponseEntity<Integer> getUserRank(@PathVariable Long userId) {
         return ResponseEntity.ok(leaderboardService.getUserRank(userId));
     }
+
+    @GetMapping("/user/{userId}/country-rank")
+    public ResponseEntity<Integer> getUserCountryRank(@PathVariable Long userId) {
+        return ResponseEntity.ok(leaderboardService.getUserCountryRank(userId));
+    }
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package com.parth.Backend.controller;
 
+import com.parth.Backend.dto.UserBadgeDto;
+import com.parth.Backend.dto.UserChallengeDto;
 import com.parth.Backend.dto.UserDto;
-import com.parth.Backend.model.UserBadge;
-import com.parth.Backend.model.UserChallenge;
 import com.parth.Backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Set;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -33,13 +33,13 @@ public class UserController {
     }
 
     @GetMapping("/{id}/badges")
-    public ResponseEntity<Set<UserBadge>> getUserBadges(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserBadges(id));
+    public ResponseEntity<Page<UserBadgeDto>> getUserBadges(@PathVariable Long id, Pageable pageable) {
+        return ResponseEntity.ok(userService.getUserBadges(id, pageable));
     }
 
     @GetMapping("/{id}/challenges")
-    public ResponseEntity<Set<UserChallenge>> getUserChallenges(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserChallenges(id));
+    public ResponseEntity<Page<UserChallengeDto>> getUserChallenges(@PathVariable Long id, Pageable pageable) {
+        return ResponseEntity.ok(userService.getUserChallenges(id, pageable));
     }
 
     @DeleteMapping("/{id}")
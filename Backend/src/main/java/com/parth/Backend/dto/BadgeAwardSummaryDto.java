@@ -0,0 +1,19 @@
+package com.parth.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BadgeAwardSummaryDto {
+    private Long badgeId;
+    private Integer requested;     // Distinct user ids in the request
+    private Integer awarded;
+    private Integer alreadyHeld;
+    private Integer unknownUsers;
+    private Integer pointsPerUser;
+}
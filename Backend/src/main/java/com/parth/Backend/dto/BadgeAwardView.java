@@ -0,0 +1,7 @@
+package com.parth.Backend.dto;
+
+// One existing user from a bulk award: whether this award inserted their badge row
+public interface BadgeAwardView {
+    Long getUserId();
+    Boolean getAwarded();
+}
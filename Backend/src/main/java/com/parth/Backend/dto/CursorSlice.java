@@ -0,0 +1,25 @@
+package com.parth.Backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One window of a keyset-paginated listing. There is no total count; pass {@code nextCursor}
+ * back as {@code cursor} to continue, until {@code hasNext} is false.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorSlice<T> {
+    private List<T> content;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;  // Null on the last slice
+    private boolean hasNext;
+}
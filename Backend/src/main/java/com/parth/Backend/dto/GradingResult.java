@@ -0,0 +1,30 @@
+package com.parth.Backend.dto;
+
+import com.parth.Backend.model.TestVerdict;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradingResult {
+    private List<TestCaseResult> results;
+
+    public int getPassedCount() {
+        return (int) results.stream().filter(result -> result.getVerdict() == TestVerdict.PASSED).count();
+    }
+
+    public int getTotalCount() {
+        return results.size();
+    }
+
+    public boolean isPassed() {
+        return !results.isEmpty() && getPassedCount() == results.size();
+    }
+}
@@ -1,5 +1,7 @@
 package com.parth.Backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,6 +17,8 @@ public class LeaderboardEntryDto {
     private String avatar;
     private Integer points;
     private Integer rank;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer countryRank;  // Only set on country leaderboards
     private Integer completedChallenges;
     private Integer earnedBadges;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.parth.Backend.dto;
+
+public interface LeaderboardEntryView {
+    Long getUserId();
+    String getUsername();
+    String getAvatar();
+    Integer getPoints();
+    Long getRank();
+    Long getCompletedChallenges();
+    Long getEarnedBadges();
+}
@@ -0,0 +1,18 @@
+package com.parth.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingSubmission {
+    private Long attemptId;
+    private Long userId;
+    private Long challengeId;
+    private long challengeVersion;
+    private String solution;
+}
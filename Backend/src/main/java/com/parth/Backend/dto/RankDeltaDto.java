@@ -0,0 +1,16 @@
+package com.parth.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankDeltaDto {
+    private Long userId;
+    private Integer points;
+    private Integer rank;
+}
@@ -0,0 +1,24 @@
+package com.parth.Backend.dto;
+
+import com.parth.Backend.model.ChallengeStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionVerdictDto {
+    private Long attemptId;
+    private Long challengeId;
+    private ChallengeStatus status;
+    private Integer score;
+    private Integer passedTests;
+    private Integer totalTests;
+    private List<TestCaseResult> testResults;
+}
@@ -0,0 +1,18 @@
+package com.parth.Backend.dto;
+
+import com.parth.Backend.model.TestVerdict;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestCaseResult {
+    private int index;
+    private TestVerdict verdict;
+    private String message;
+}
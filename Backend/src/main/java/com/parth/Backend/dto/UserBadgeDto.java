@@ -0,0 +1,21 @@
+package com.parth.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBadgeDto {
+    private Long id;
+    private Long badgeId;
+    private String title;
+    private String description;
+    private String imageUrl;
+    private LocalDateTime awardedAt;
+}
@@ -0,0 +1,44 @@
+package com.parth.Backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.parth.Backend.model.ChallengeStatus;
+import com.parth.Backend.model.Difficulty;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A challenge attempt with just enough of the challenge to list it; never carries the
+ * challenge's test cases or the submitted solution.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChallengeDto {
+    private Long id;
+    private Long challengeId;
+    private String challengeTitle;
+    private Difficulty difficulty;
+    private ChallengeStatus status;
+    private Integer score;
+    private Integer passedTests;
+    private Integer totalTests;
+    private LocalDateTime startedAt;
+    private LocalDateTime timestamp;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TestCaseResult> testResults;  // Only set on a single graded attempt, never in listings
+
+    // Used by the listing query, which leaves per-test results out
+    public UserChallengeDto(Long id, Long challengeId, String challengeTitle, Difficulty difficulty,
+                            ChallengeStatus status, Integer score, Integer passedTests, Integer totalTests,
+                            LocalDateTime startedAt, LocalDateTime timestamp) {
+        this(id, challengeId, challengeTitle, difficulty, status, score, passedTests, totalTests,
+                startedAt, timestamp, null);
+    }
+}
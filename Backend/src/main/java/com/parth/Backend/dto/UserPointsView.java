@@ -0,0 +1,7 @@
+package com.parth.Backend.dto;
+
+public interface UserPointsView {
+    Long getId();
+    Integer getPoints();
+    String getCountry();
+}
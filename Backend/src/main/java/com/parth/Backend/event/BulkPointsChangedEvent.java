@@ -0,0 +1,10 @@
+package com.parth.Backend.event;
+
+import java.util.Map;
+
+/**
+ * New point totals (user id to points) for a bulk change such as a badge awarded to a whole
+ * class, published once instead of one {@link PointsChangedEvent} per user.
+ */
+public record BulkPointsChangedEvent(Map<Long, Integer> totals) {
+}
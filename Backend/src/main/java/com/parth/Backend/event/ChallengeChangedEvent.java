@@ -0,0 +1,7 @@
+package com.parth.Backend.event;
+
+/**
+ * Published when a challenge is edited or deleted; compiled test plans are dropped after commit.
+ */
+public record ChallengeChangedEvent(Long challengeId) {
+}
@@ -0,0 +1,8 @@
+package com.parth.Backend.event;
+
+/**
+ * A user's new point total, published inside the transaction that changed it.
+ * {@code previousPoints} lets listeners work out whose rank moved without a recount.
+ */
+public record PointsChangedEvent(Long userId, Integer previousPoints, Integer points) {
+}
@@ -0,0 +1,6 @@
+package com.parth.Backend.event;
+
+import com.parth.Backend.dto.SubmissionVerdictDto;
+
+public record SubmissionGradedEvent(Long userId, SubmissionVerdictDto verdict) {
+}
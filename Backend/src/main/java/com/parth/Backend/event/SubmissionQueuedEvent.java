@@ -0,0 +1,7 @@
+package com.parth.Backend.event;
+
+/**
+ * Published when a submission is stored as PENDING; grading starts once the transaction commits.
+ */
+public record SubmissionQueuedEvent(Long attemptId) {
+}
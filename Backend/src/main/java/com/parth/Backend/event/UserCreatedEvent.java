@@ -0,0 +1,7 @@
+package com.parth.Backend.event;
+
+/**
+ * A user signed up (at zero points), published inside the creating transaction.
+ */
+public record UserCreatedEvent(Long userId) {
+}
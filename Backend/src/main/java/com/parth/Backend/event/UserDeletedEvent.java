@@ -0,0 +1,7 @@
+package com.parth.Backend.event;
+
+/**
+ * A user was deleted, published inside the deleting transaction.
+ */
+public record UserDeletedEvent(Long userId) {
+}
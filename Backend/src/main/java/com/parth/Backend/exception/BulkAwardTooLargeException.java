@@ -0,0 +1,11 @@
+package com.parth.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BulkAwardTooLargeException extends RuntimeException {
+    public BulkAwardTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.parth.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class GradingUnavailableException extends RuntimeException {
+    public GradingUnavailableException(String message) {
+        super(message);
+    }
+}
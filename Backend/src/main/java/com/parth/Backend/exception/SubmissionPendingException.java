@@ -0,0 +1,11 @@
+package com.parth.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SubmissionPendingException extends RuntimeException {
+    public SubmissionPendingException(String message) {
+        super(message);
+    }
+}
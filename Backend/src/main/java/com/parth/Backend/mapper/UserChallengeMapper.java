@@ -0,0 +1,26 @@
+package com.parth.Backend.mapper;
+
+import com.parth.Backend.dto.UserChallengeDto;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.model.UserChallenge;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserChallengeMapper {
+    // Reads the challenge association, so call it while the session is still open
+    public static UserChallengeDto mapToUserChallengeDto(UserChallenge userChallenge) {
+        Challenge challenge = userChallenge.getChallenge();
+        return new UserChallengeDto(
+                userChallenge.getId(),
+                challenge.getId(),
+                challenge.getTitle(),
+                challenge.getDifficulty(),
+                userChallenge.getStatus(),
+                userChallenge.getScore(),
+                userChallenge.getPassedTests(),
+                userChallenge.getTotalTests(),
+                userChallenge.getStartedAt(),
+                userChallenge.getTimestamp(),
+                userChallenge.getTestResults());
+    }
+}
@@ -13,7 +13,9 @@ public class UserMapper {
         userDto.setEmail(user.getEmail());
         userDto.setAvatar(user.getAvatar());
         userDto.setPoints(user.getPoints());
+        userDto.setCountry(user.getCountry());
         userDto.setCreatedAt(user.getCreatedAt());
+        userDto.setRole(user.getRole());
         // We don't map password for security reasons
         return userDto;
     }
@@ -26,6 +28,7 @@ public class UserMapper {
         user.setPassword(userDto.getPassword()); // Password will be encrypted in service layer
         user.setAvatar(userDto.getAvatar());
         user.setPoints(userDto.getPoints());
+        user.setCountry(userDto.getCountry());
         return user;
     }
 }
@@ -0,0 +1,165 @@
+package com.parth.Backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many statements each request ran and how long it spent in JDBC, tagged like
+ * {@code http.server.requests} so the two can be read side by side.
+ * <p>
+ * Requests over the statement limit, or that run one statement shape too many times, are
+ * logged and counted in {@code codekids.http.server.query.warnings}. With response headers
+ * enabled (the dev profile) the findings are also returned as {@code X-Query-*} headers,
+ * which means buffering the body until the request is done. Async responses (SSE streams,
+ * deferred results) are written straight through instead and get no headers.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+    static final String COUNT_HEADER = "X-Query-Count";
+    static final String TIME_HEADER = "X-Query-Time-Ms";
+    static final String WARNING_HEADER = "X-Query-Warning";
+    private static final int MAX_SHAPE_LENGTH = 200;
+
+    private final RequestQueryTracker tracker;
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final int repeatedStatementThreshold;
+    private final boolean responseHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        BufferedResponse buffered = responseHeaders ? new BufferedResponse(request, response) : null;
+        tracker.start();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            RequestQueryStats stats = tracker.stop();
+            try {
+                if (stats != null) {
+                    String warning = record(request, stats);
+                    if (buffered != null && !request.isAsyncStarted()) {
+                        addHeaders(buffered, stats, warning);
+                    }
+                }
+            } finally {
+                if (buffered != null) {
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private String record(HttpServletRequest request, RequestQueryStats stats) {
+        String uri = uriOf(request);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder("codekids.http.server.queries")
+                .description("SQL statements executed per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        Timer.builder("codekids.http.server.jdbc")
+                .description("Time spent executing SQL per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        String warning = null;
+        Map.Entry<String, Integer> repeated = stats.mostRepeatedShape();
+        if (repeated != null && repeated.getValue() >= repeatedStatementThreshold) {
+            warning = "repeated-statement";
+            meterRegistry.counter("codekids.http.server.query.warnings", tags.and("type", "repeated_statement")).increment();
+            log.warn("{} {} ran the same statement {} times (possible N+1): {}",
+                    request.getMethod(), uri, repeated.getValue(), truncate(repeated.getKey()));
+        }
+        if (stats.getStatementCount() > maxStatements) {
+            warning = warning == null ? "too-many-statements" : warning + ", too-many-statements";
+            meterRegistry.counter("codekids.http.server.query.warnings", tags.and("type", "too_many_statements")).increment();
+            log.warn("{} {} ran {} statements (limit {})", request.getMethod(), uri, stats.getStatementCount(), maxStatements);
+        }
+        return warning;
+    }
+
+    private void addHeaders(HttpServletResponse response, RequestQueryStats stats, String warning) {
+        response.setHeader(COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+        response.setHeader(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+        if (warning != null) {
+            Map.Entry<String, Integer> repeated = stats.mostRepeatedShape();
+            response.setHeader(WARNING_HEADER, warning + "; top=" + repeated.getValue() + "x " + truncate(repeated.getKey()));
+        }
+    }
+
+    // The matched route keeps the tag's cardinality bounded; raw paths carry ids
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String truncate(String shape) {
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    /**
+     * Buffers the body so headers can still be added after the handler ran, unless the
+     * handler went async or produces an event stream: those writes go straight to the
+     * client, whatever the request's Accept header said. Both are known before the first
+     * write, since MVC starts async processing and sets the content type first.
+     */
+    private static final class BufferedResponse extends ContentCachingResponseWrapper {
+        private final HttpServletRequest request;
+
+        BufferedResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return streaming() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return streaming() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streaming()) {
+                copyBodyToResponse();
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        private boolean streaming() {
+            return request.isAsyncStarted() || isEventStream(getContentType());
+        }
+
+        private static boolean isEventStream(String contentType) {
+            return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.parth.Backend.metrics;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements executed and JDBC time spent while serving one request, plus how often each
+ * statement shape ran. The same shape running many times in one request is the usual
+ * sign of lazy loading inside a loop (N+1).
+ */
+@Getter
+public class RequestQueryStats {
+    // Written so long literals and lists don't recurse once per character or element
+    private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*+(?:''[^']*+)*+'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?[\\s,?]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statementCount;
+    private long jdbcNanos;
+    private final Map<String, Integer> shapeCounts = new HashMap<>();
+
+    void record(Iterable<String> statements, long elapsedNanos) {
+        for (String sql : statements) {
+            statementCount++;
+            shapeCounts.merge(shapeOf(sql), 1, Integer::sum);
+        }
+        jdbcNanos += elapsedNanos;
+    }
+
+    /**
+     * The most repeated statement shape, or null if nothing ran.
+     */
+    public Map.Entry<String, Integer> mostRepeatedShape() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : shapeCounts.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+
+    // Literals and IN-list lengths vary per call; the shape is what stays the same
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,48 @@
+package com.parth.Backend.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Collects statement counts and JDBC time for the request on the current thread. Statements
+ * run outside a tracked request (grading workers, schedulers) are ignored.
+ */
+@Component
+public class RequestQueryTracker implements QueryExecutionListener {
+    private final ThreadLocal<RequestQueryStats> current = new ThreadLocal<>();
+    private final ThreadLocal<Long> statementStart = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new RequestQueryStats());
+    }
+
+    public RequestQueryStats stop() {
+        RequestQueryStats stats = current.get();
+        current.remove();
+        statementStart.remove();
+        return stats;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (current.get() != null) {
+            statementStart.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryStats stats = current.get();
+        Long start = statementStart.get();
+        if (stats == null || start == null) {
+            return;
+        }
+        statementStart.remove();
+        // ExecutionInfo only reports whole milliseconds, which rounds most statements to zero
+        stats.record(queryInfoList.stream().map(QueryInfo::getQuery).toList(), System.nanoTime() - start);
+    }
+}
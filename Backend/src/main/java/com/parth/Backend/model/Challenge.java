@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +16,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
 @Table(name = "challenges")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -36,6 +40,7 @@ public class Challenge {
     
     @ElementCollection
     @CollectionTable(name = "challenge_test_cases")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Column(name = "test_case", columnDefinition = "TEXT")
     private List<String> testCases = new ArrayList<>();
     
@@ -50,4 +55,9 @@ public class Challenge {
     private Set<UserChallenge> userChallenges;
     
     private boolean active = true;
+
+    // Bumped on every change; compiled test plans are keyed by it
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.parth.Backend.model;
 
 public enum ChallengeStatus {
     IN_PROGRESS,
+    PENDING,  // Submitted and waiting for the grading worker
     COMPLETED,
     FAILED
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.parth.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed leaderboard row per user, maintained by
+ * {@link com.parth.Backend.service.LeaderboardSnapshotService}. Not a foreign key to users,
+ * so deleting a user never waits on the snapshot; reads join users and drop stale rows.
+ */
+@Entity
+@Table(name = "leaderboard_snapshot", indexes = {
+    @Index(name = "idx_leaderboard_snapshot_points_user", columnList = "points DESC, user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer points;
+
+    @Column(name = "user_rank", nullable = false)
+    private Integer rank;
+
+    @Column(nullable = false)
+    private Integer completedChallenges;
+
+    @Column(nullable = false)
+    private Integer earnedBadges;
+
+    @Column(nullable = false)
+    private LocalDateTime refreshedAt;
+}
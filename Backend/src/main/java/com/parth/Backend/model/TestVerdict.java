@@ -0,0 +1,8 @@
+package com.parth.Backend.model;
+
+public enum TestVerdict {
+    PASSED,
+    FAILED,
+    TIMED_OUT,
+    ERROR
+}
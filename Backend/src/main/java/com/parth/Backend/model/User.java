@@ -12,7 +12,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    // id breaks ties, so keyset pagination can seek straight to (points, id)
+    @Index(name = "idx_users_points_id", columnList = "points DESC, id"),
+    @Index(name = "idx_users_country_points_id", columnList = "country, points DESC, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,6 +37,9 @@ public class User {
     
     private String avatar;
     
+    // Only ever changed through UserRepo.addPoints/addPointsToAll, so saving an entity loaded
+    // before a concurrent award can't write its stale total back
+    @Column(nullable = false, updatable = false)
     private Integer points = 0;
     
     private String country;  // Add this field
@@ -42,6 +49,9 @@ public class User {
     
     @Enumerated(EnumType.STRING)
     private Role role = Role.ROLE_USER;
+
+    // Bumped to revoke every token issued so far (stateless principal mode)
+    private Integer tokenVersion = 0;
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private Set<UserBadge> badges = new HashSet<>();
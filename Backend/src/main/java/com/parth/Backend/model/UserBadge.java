@@ -9,14 +9,20 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_badges")
+@Table(name = "user_badges", uniqueConstraints = {
+    // A badge is awarded once per user; also serves the per-user badge counts
+    @UniqueConstraint(name = "uk_user_badges_user_badge", columnNames = {"user_id", "badge_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserBadge {
+    // Pooled sequence: one round trip hands out 50 ids, so inserts can be JDBC-batched. The bulk
+    // award statement in UserBadgeRepo takes blocks the same way, so keep the two sizes in step
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_badges_seq")
+    @SequenceGenerator(name = "user_badges_seq", sequenceName = "user_badges_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,11 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.parth.Backend.dto.TestCaseResult;
 
 @Entity
 @Table(name = "user_challenges", 
@@ -19,8 +24,10 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserChallenge {
+    // Pooled sequence: one round trip hands out 50 ids, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_challenges_seq")
+    @SequenceGenerator(name = "user_challenges_seq", sequenceName = "user_challenges_seq", allocationSize = 50)
     private Long id;
     
     @JsonBackReference
@@ -28,8 +35,9 @@ public class UserChallenge {
     @JoinColumn(name = "user_id")
     private User user;
     
+    // Responses are built from UserChallengeDto, so the challenge is only loaded when used
     @JsonManagedReference
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "challenge_id")
     private Challenge challenge;
     
@@ -41,6 +49,20 @@ public class UserChallenge {
     private ChallengeStatus status = ChallengeStatus.IN_PROGRESS;
     
     private Integer score;
+
+    // Latest submitted solution, kept so PENDING attempts can be graded after a restart
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String submission;
+
+    private Integer passedTests;
+
+    private Integer totalTests;
+
+    // Per-test verdicts from the latest grading, so polling a graded attempt can return them
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<TestCaseResult> testResults;
     
     @Column(nullable = false)
     private LocalDateTime timestamp = LocalDateTime.now();
@@ -2,9 +2,17 @@ package com.parth.Backend.repository;
 
 import com.parth.Backend.model.Badge;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface BadgeRepo extends JpaRepository<Badge, Long> {
     boolean existsByTitle(String title);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Badge b SET b.imageUrl = :imageUrl WHERE b.id = :id")
+    int updateImageUrl(Long id, String imageUrl);
 }
\ No newline at end of file
@@ -2,15 +2,27 @@ package com.parth.Backend.repository;
 
 import com.parth.Backend.model.Challenge;
 import com.parth.Backend.model.Difficulty;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChallengeRepo extends JpaRepository<Challenge, Long> {
     Page<Challenge> findByDifficulty(Difficulty difficulty, Pageable pageable);
     List<Challenge> findByTitleContainingIgnoreCase(String title);
+    List<Challenge> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    // Reads the row and its test cases from the database, skipping the second-level cache
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("SELECT c FROM Challenge c LEFT JOIN FETCH c.testCases WHERE c.id = :id")
+    Optional<Challenge> findUncachedById(Long id);
 }
\ No newline at end of file
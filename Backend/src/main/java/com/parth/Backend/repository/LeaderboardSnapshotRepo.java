@@ -0,0 +1,156 @@
+package com.parth.Backend.repository;
+
+import com.parth.Backend.dto.LeaderboardEntryView;
+import com.parth.Backend.model.LeaderboardSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeaderboardSnapshotRepo extends JpaRepository<LeaderboardSnapshot, Long> {
+    // Only one instance rebuilds at a time; the lock is released when the transaction ends
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryRebuildLock(long key);
+
+    // Writes name the table they touch; without that, every native update would make
+    // Hibernate evict all second-level cache regions
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = "DELETE FROM leaderboard_snapshot", nativeQuery = true)
+    int deleteAllRows();
+
+    // Counts are aggregated once per table rather than correlated per user
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = """
+            INSERT INTO leaderboard_snapshot (user_id, points, user_rank, completed_challenges, earned_badges, refreshed_at)
+            SELECT u.id, COALESCE(u.points, 0),
+                   RANK() OVER (ORDER BY COALESCE(u.points, 0) DESC),
+                   COALESCE(c.completed, 0), COALESCE(b.badges, 0), now()
+            FROM users u
+            LEFT JOIN (SELECT user_id, COUNT(*) AS completed FROM user_challenges
+                        WHERE status = 'COMPLETED' GROUP BY user_id) c ON c.user_id = u.id
+            LEFT JOIN (SELECT user_id, COUNT(*) AS badges FROM user_badges GROUP BY user_id) b ON b.user_id = u.id
+            """,
+            nativeQuery = true)
+    int insertAllRows();
+
+    /**
+     * Moves everyone whose rank is affected by one user going from {@code previousPoints} to
+     * {@code points}: rows in [previous, new) drop a place on a gain, rows in [new, previous)
+     * climb one on a loss. Everyone else's count of users above them is unchanged.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = """
+            UPDATE leaderboard_snapshot
+            SET user_rank = user_rank + CASE WHEN :points > :previousPoints THEN 1 ELSE -1 END
+            WHERE user_id <> :userId
+              AND points >= LEAST(:previousPoints, :points) AND points < GREATEST(:previousPoints, :points)
+            """,
+            nativeQuery = true)
+    int shiftRanksBetween(Long userId, int previousPoints, int points);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = """
+            INSERT INTO leaderboard_snapshot (user_id, points, user_rank, completed_challenges, earned_badges, refreshed_at)
+            VALUES (:userId, :points,
+                    (SELECT COUNT(*) FROM leaderboard_snapshot s WHERE s.points > :points AND s.user_id <> :userId) + 1,
+                    (SELECT COUNT(*) FROM user_challenges uc WHERE uc.user_id = :userId AND uc.status = 'COMPLETED'),
+                    (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = :userId),
+                    now())
+            ON CONFLICT (user_id) DO UPDATE
+            SET points = EXCLUDED.points, user_rank = EXCLUDED.user_rank,
+                completed_challenges = EXCLUDED.completed_challenges,
+                earned_badges = EXCLUDED.earned_badges, refreshed_at = EXCLUDED.refreshed_at
+            """,
+            nativeQuery = true)
+    int upsertRow(Long userId, int points);
+
+    // Everyone below a removed row climbs one place
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = "UPDATE leaderboard_snapshot SET user_rank = user_rank - 1 WHERE points < :points", nativeQuery = true)
+    int shiftRanksBelow(int points);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = "DELETE FROM leaderboard_snapshot WHERE user_id = :userId", nativeQuery = true)
+    int deleteRow(Long userId);
+
+    @Query(value = "SELECT points FROM leaderboard_snapshot WHERE user_id IN (:userIds)", nativeQuery = true)
+    List<Integer> findPointsByUserIds(Collection<Long> userIds);
+
+    // Copies current points and counts for these users; their ranks are set by recomputeRanksBetween
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = """
+            INSERT INTO leaderboard_snapshot (user_id, points, user_rank, completed_challenges, earned_badges, refreshed_at)
+            SELECT u.id, COALESCE(u.points, 0), 0,
+                   (SELECT COUNT(*) FROM user_challenges uc WHERE uc.user_id = u.id AND uc.status = 'COMPLETED'),
+                   (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = u.id),
+                   now()
+            FROM users u
+            WHERE u.id IN (:userIds)
+            ON CONFLICT (user_id) DO UPDATE
+            SET points = EXCLUDED.points, completed_challenges = EXCLUDED.completed_challenges,
+                earned_badges = EXCLUDED.earned_badges, refreshed_at = EXCLUDED.refreshed_at
+            """,
+            nativeQuery = true)
+    int upsertRowsFromUsers(Collection<Long> userIds);
+
+    /**
+     * Re-ranks every row with points in [low, high]: its rank within the band, offset by the
+     * rows above it. When only users whose old and new points fall in the band moved, no
+     * other row's rank changed.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaderboard_snapshot"))
+    @Query(value = """
+            UPDATE leaderboard_snapshot s
+            SET user_rank = r.new_rank
+            FROM (SELECT user_id,
+                         RANK() OVER (ORDER BY points DESC)
+                             + (SELECT COUNT(*) FROM leaderboard_snapshot WHERE points > :high) AS new_rank
+                  FROM leaderboard_snapshot
+                  WHERE points BETWEEN :low AND :high) r
+            WHERE s.user_id = r.user_id AND s.user_rank <> r.new_rank
+            """,
+            nativeQuery = true)
+    int recomputeRanksBetween(int low, int high);
+
+    @Query(value = """
+            SELECT s.user_id AS "userId", u.username AS "username", u.avatar AS "avatar",
+                   s.points AS "points", s.user_rank AS "rank",
+                   s.completed_challenges AS "completedChallenges", s.earned_badges AS "earnedBadges"
+            FROM leaderboard_snapshot s
+            JOIN users u ON u.id = s.user_id
+            ORDER BY s.points DESC, s.user_id
+            """,
+            countQuery = "SELECT COUNT(*) FROM leaderboard_snapshot",
+            nativeQuery = true)
+    Page<LeaderboardEntryView> findLeaderboardPage(Pageable pageable);
+
+    @Query(value = """
+            SELECT s.user_id AS "userId", u.username AS "username", u.avatar AS "avatar",
+                   s.points AS "points", s.user_rank AS "rank",
+                   s.completed_challenges AS "completedChallenges", s.earned_badges AS "earnedBadges"
+            FROM leaderboard_snapshot s
+            JOIN users u ON u.id = s.user_id
+            WHERE s.points <= :points AND (s.points < :points OR s.user_id > :id)
+            ORDER BY s.points DESC, s.user_id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<LeaderboardEntryView> findLeaderboardAfter(int points, long id, int limit);
+}
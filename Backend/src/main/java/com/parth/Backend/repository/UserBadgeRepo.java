@@ -1,13 +1,57 @@
 package com.parth.Backend.repository;
 
+import com.parth.Backend.dto.BadgeAwardView;
+import com.parth.Backend.dto.UserBadgeDto;
 import com.parth.Backend.model.UserBadge;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface UserBadgeRepo extends JpaRepository<UserBadge, Long> {
     List<UserBadge> findByUserId(Long userId);
     boolean existsByUserIdAndBadgeId(Long userId, Long badgeId);
+
+    // Awards the badge to every listed user that exists and doesn't hold it yet, in one statement.
+    // Returns a row per existing user saying whether it was awarded now; unknown ids return nothing.
+    // Ids come from user_badges_seq the way Hibernate's pooled optimizer takes them (UserBadge's
+    // allocationSize of 50): each nextval reserves the 50 ids ending at its value, so one call
+    // numbers 50 rows. The unique (user_id, badge_id) constraint makes a concurrent award skip
+    // rows it lost the race for instead of inserting duplicates.
+    @Transactional
+    @Query(value = """
+            WITH candidates AS (
+                SELECT u.id AS user_id,
+                       EXISTS (SELECT 1 FROM user_badges ub WHERE ub.user_id = u.id AND ub.badge_id = :badgeId) AS held
+                FROM users u WHERE u.id IN (:userIds)
+            ), numbered AS (
+                SELECT user_id, row_number() OVER (ORDER BY user_id) - 1 AS n FROM candidates WHERE NOT held
+            ), blocks AS (
+                SELECT b, nextval('user_badges_seq') AS hi
+                FROM generate_series(0, CAST(CEIL((SELECT count(*) FROM numbered) / 50.0) AS integer) - 1) AS b
+            ), inserted AS (
+                INSERT INTO user_badges (id, user_id, badge_id, awarded_at)
+                SELECT blocks.hi - 49 + numbered.n % 50, numbered.user_id, :badgeId, :awardedAt
+                FROM numbered JOIN blocks ON blocks.b = numbered.n / 50
+                ON CONFLICT (user_id, badge_id) DO NOTHING
+                RETURNING user_id
+            )
+            SELECT c.user_id AS "userId", i.user_id IS NOT NULL AS "awarded"
+            FROM candidates c LEFT JOIN inserted i ON i.user_id = c.user_id
+            """,
+            nativeQuery = true)
+    List<BadgeAwardView> insertMissing(Long badgeId, Collection<Long> userIds, LocalDateTime awardedAt);
+
+    @Query(value = "SELECT new com.parth.Backend.dto.UserBadgeDto(ub.id, b.id, b.title, b.description, b.imageUrl, ub.awardedAt) " +
+                   "FROM UserBadge ub JOIN ub.badge b WHERE ub.user.id = :userId " +
+                   "ORDER BY ub.awardedAt DESC, ub.id DESC",
+           countQuery = "SELECT COUNT(ub) FROM UserBadge ub WHERE ub.user.id = :userId")
+    Page<UserBadgeDto> findDtosByUserId(Long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.parth.Backend.repository;
 
+import com.parth.Backend.dto.PendingSubmission;
+import com.parth.Backend.dto.UserChallengeDto;
 import com.parth.Backend.model.UserChallenge;
 import com.parth.Backend.model.ChallengeStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +30,35 @@ public interface UserChallengeRepo extends JpaRepository<UserChallenge, Long> {
     boolean existsByChallengeId(Long challengeId);
 
     Optional<UserChallenge> findFirstByUserIdAndChallengeIdOrderByTimestampDesc(Long userId, Long challengeId);
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.id = :id")
+    Optional<UserChallenge> findByIdForUpdate(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT uc FROM UserChallenge uc WHERE uc.user.id = :userId AND uc.challenge.id = :challengeId " +
+           "ORDER BY uc.timestamp DESC LIMIT 1")
+    Optional<UserChallenge> findLatestForUpdate(Long userId, Long challengeId);
+
+    // Only what grading needs; test cases come from the compiled plan cache
+    @Query("SELECT new com.parth.Backend.dto.PendingSubmission(uc.id, uc.user.id, uc.challenge.id, uc.challenge.version, uc.submission) " +
+           "FROM UserChallenge uc WHERE uc.id = :id AND uc.status = :status")
+    Optional<PendingSubmission> findPendingSubmission(Long id, ChallengeStatus status);
+
+    @Query("SELECT uc.id FROM UserChallenge uc WHERE uc.status = :status AND uc.timestamp <= :before")
+    List<Long> findIdsByStatusAndTimestampBefore(ChallengeStatus status, LocalDateTime before);
+
+    // Attempts and their challenges in one join; test cases are never touched
+    @Query(value = "SELECT new com.parth.Backend.dto.UserChallengeDto(uc.id, c.id, c.title, c.difficulty, uc.status, " +
+                   "uc.score, uc.passedTests, uc.totalTests, uc.startedAt, uc.timestamp) " +
+                   "FROM UserChallenge uc JOIN uc.challenge c WHERE uc.user.id = :userId " +
+                   "ORDER BY uc.timestamp DESC, uc.id DESC",
+           countQuery = "SELECT COUNT(uc) FROM UserChallenge uc WHERE uc.user.id = :userId")
+    Page<UserChallengeDto> findDtosByUserId(Long userId, Pageable pageable);
+
+    // A user has at most one attempt per challenge (unique constraint); includes per-test verdicts
+    @Query("SELECT new com.parth.Backend.dto.UserChallengeDto(uc.id, c.id, c.title, c.difficulty, uc.status, " +
+           "uc.score, uc.passedTests, uc.totalTests, uc.startedAt, uc.timestamp, uc.testResults) " +
+           "FROM UserChallenge uc JOIN uc.challenge c WHERE uc.user.id = :userId AND c.id = :challengeId")
+    Optional<UserChallengeDto> findDtoByUserIdAndChallengeId(Long userId, Long challengeId);
+}
@@ -1,10 +1,17 @@
 package com.parth.Backend.repository;
 
+import com.parth.Backend.dto.LeaderboardEntryView;
+import com.parth.Backend.dto.UserPointsView;
 import com.parth.Backend.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +24,95 @@ public interface UserRepo extends JpaRepository<User, Long> {
     Page<User> findAllByCountryOrderByPointsDesc(String country, Pageable pageable);
     long countByPointsGreaterThan(Integer points);
     long countByPointsLessThanEqual(Integer points);
+    long countByCountryAndPointsGreaterThan(String country, Integer points);
+
+    // Atomic increment; not @Modifying because Postgres hands the new total back as a row.
+    // Bypasses the persistence context, so don't save a User loaded earlier in the same transaction.
+    @Transactional
+    @Query(value = "UPDATE users SET points = COALESCE(points, 0) + :delta WHERE id = :id RETURNING points",
+            nativeQuery = true)
+    Optional<Integer> addPoints(Long id, int delta);
+
+    // Bulk form of addPoints for many users at once; returns every updated user's new total
+    @Transactional
+    @Query(value = "UPDATE users SET points = COALESCE(points, 0) + :delta WHERE id IN (:ids) " +
+                   "RETURNING id AS id, points AS points, country AS country",
+            nativeQuery = true)
+    List<UserPointsView> addPointsToAll(Collection<Long> ids, int delta);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.avatar = :avatar WHERE u.id = :id")
+    int updateAvatar(Long id, String avatar);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(Long id);
+
+    @Query("SELECT u.id AS id, u.points AS points, u.country AS country FROM User u")
+    List<UserPointsView> findAllPoints();
+
+    // Whole leaderboard page in one statement: the window function ranks every user
+    // before paging, and the correlated counts are only evaluated for the rows returned.
+    @Query(value = """
+            SELECT r.id AS "userId", r.username AS "username", r.avatar AS "avatar",
+                   r.points AS "points", r.user_rank AS "rank",
+                   (SELECT COUNT(*) FROM user_challenges uc
+                     WHERE uc.user_id = r.id AND uc.status = 'COMPLETED') AS "completedChallenges",
+                   (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = r.id) AS "earnedBadges"
+            FROM (SELECT u.id, u.username, u.avatar, COALESCE(u.points, 0) AS points,
+                         RANK() OVER (ORDER BY COALESCE(u.points, 0) DESC) AS user_rank
+                  FROM users u) r
+            ORDER BY r.points DESC, r.id
+            """,
+            countQuery = "SELECT COUNT(*) FROM users",
+            nativeQuery = true)
+    Page<LeaderboardEntryView> findLeaderboardPage(Pageable pageable);
+
+    // Ranked within the country only, so "rank" here is the in-country rank. Filtering
+    // before the window lets idx_users_country_points_id serve the scan.
+    @Query(value = """
+            SELECT r.id AS "userId", r.username AS "username", r.avatar AS "avatar",
+                   r.points AS "points", r.user_rank AS "rank",
+                   (SELECT COUNT(*) FROM user_challenges uc
+                     WHERE uc.user_id = r.id AND uc.status = 'COMPLETED') AS "completedChallenges",
+                   (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = r.id) AS "earnedBadges"
+            FROM (SELECT u.id, u.username, u.avatar, COALESCE(u.points, 0) AS points,
+                         RANK() OVER (ORDER BY COALESCE(u.points, 0) DESC) AS user_rank
+                  FROM users u
+                  WHERE u.country = :country) r
+            ORDER BY r.points DESC, r.id
+            """,
+            countQuery = "SELECT COUNT(*) FROM users WHERE country = :country",
+            nativeQuery = true)
+    Page<LeaderboardEntryView> findLeaderboardPageByCountry(String country, Pageable pageable);
+
+    // Keyset slices: seek past the last (points, id) instead of counting and skipping rows,
+    // so every slice costs the same however deep it is. No rank column; callers take it from
+    // the rank index. The predicate is written so idx_users_points_id serves it as a range.
+    @Query(value = """
+            SELECT u.id AS "userId", u.username AS "username", u.avatar AS "avatar", u.points AS "points",
+                   (SELECT COUNT(*) FROM user_challenges uc
+                     WHERE uc.user_id = u.id AND uc.status = 'COMPLETED') AS "completedChallenges",
+                   (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = u.id) AS "earnedBadges"
+            FROM users u
+            WHERE u.points <= :points AND (u.points < :points OR u.id > :id)
+            ORDER BY u.points DESC, u.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<LeaderboardEntryView> findLeaderboardAfter(int points, long id, int limit);
+
+    @Query(value = """
+            SELECT u.id AS "userId", u.username AS "username", u.avatar AS "avatar", u.points AS "points",
+                   (SELECT COUNT(*) FROM user_challenges uc
+                     WHERE uc.user_id = u.id AND uc.status = 'COMPLETED') AS "completedChallenges",
+                   (SELECT COUNT(*) FROM user_badges ub WHERE ub.user_id = u.id) AS "earnedBadges"
+            FROM users u
+            WHERE u.country = :country
+              AND u.points <= :points AND (u.points < :points OR u.id > :id)
+            ORDER BY u.points DESC, u.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<LeaderboardEntryView> findLeaderboardByCountryAfter(String country, int points, long id, int limit);
 }
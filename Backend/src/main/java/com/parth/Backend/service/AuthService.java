@@ -6,6 +6,8 @@ import com.parth.Backend.dto.UserDto;
 import com.parth.Backend.exception.AuthenticationFailedException;
 import com.parth.Backend.model.UserPrincipal;
 import com.parth.Backend.repository.UserRepo;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -24,6 +26,8 @@ public class AuthService {
     private final UserRepo userRepo;
     private final UserService userService;
 
+    @Timed(value = "codekids.auth.login", histogram = true)
+    @Counted(value = "codekids.auth.login.failures", recordFailuresOnly = true)
     public AuthResponse login(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
@@ -36,7 +40,7 @@ public class AuthService {
             if (authentication.isAuthenticated()) {
                 var user = userRepo.findByUsername(loginRequest.getUsername())
                     .orElseThrow(() -> new AuthenticationFailedException("User not found"));
-                String token = jwtService.generateToken(user.getUsername());
+                String token = jwtService.generateToken(user);
                 
                 return new AuthResponse(
                     token,
@@ -58,7 +62,9 @@ public class AuthService {
     @Transactional
     public AuthResponse signup(UserDto userDto, MultipartFile file) {
         UserDto createdUser = userService.createUser(userDto, file);
-        String token = jwtService.generateToken(createdUser.getUsername());
+        // New accounts start at token version 0
+        String token = jwtService.generateToken(
+            createdUser.getId(), createdUser.getUsername(), createdUser.getRole(), 0);
         
         return new AuthResponse(
             token,
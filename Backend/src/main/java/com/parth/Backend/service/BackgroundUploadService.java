@@ -0,0 +1,156 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.exception.UploadUnavailableException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Moves image uploads off the request path. The multipart file is spooled to disk during
+ * the request, and only once the surrounding transaction commits is it pushed to the image
+ * host on the upload pool; {@code onUploaded} then stores the resulting URL. A rolled back
+ * request just deletes its spooled file.
+ * <p>
+ * An optional {@code transform} (e.g. avatar resizing) runs on the upload thread before the
+ * upload, so the request never waits for it. If it throws, nothing is uploaded; a cheap
+ * {@code check} run during the request is what lets the client hear about a bad file.
+ * <p>
+ * Every upload reserves a slot in the pool (a thread or a queue entry) before anything is
+ * spooled, and holds it until the upload finishes. When none is free the request fails
+ * with 503 and its transaction rolls back, so an upload is never dropped after commit and
+ * never runs on the request thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BackgroundUploadService {
+    private final CloudinaryService cloudinaryService;
+    private final ThreadPoolExecutor uploadExecutor;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/codekids-uploads}")
+    private String spoolDir;
+
+    private Semaphore uploadSlots;
+
+    @PostConstruct
+    void initSlots() {
+        uploadSlots = new Semaphore(uploadExecutor.getMaximumPoolSize() + uploadExecutor.getQueue().remainingCapacity());
+    }
+
+    public void uploadAfterCommit(MultipartFile file, Consumer<String> onUploaded) {
+        uploadAfterCommit(file, UnaryOperator.identity(), onUploaded);
+    }
+
+    /**
+     * @throws UploadUnavailableException if the upload pool has no free slot
+     */
+    public void uploadAfterCommit(MultipartFile file, UnaryOperator<Path> transform, Consumer<String> onUploaded) {
+        uploadAfterCommit(file, spooled -> { }, transform, onUploaded);
+    }
+
+    /**
+     * Runs {@code check} on the spooled file before returning, so a file the transform is
+     * bound to reject fails the request itself instead of a log line after commit.
+     *
+     * @throws UploadUnavailableException if the upload pool has no free slot
+     */
+    public void uploadAfterCommit(MultipartFile file, Consumer<Path> check, UnaryOperator<Path> transform,
+                                  Consumer<String> onUploaded) {
+        if (!uploadSlots.tryAcquire()) {
+            throw new UploadUnavailableException("Too many uploads in progress, please try again shortly");
+        }
+        Path spooled;
+        try {
+            spooled = spool(file);
+        } catch (RuntimeException e) {
+            uploadSlots.release();
+            throw e;
+        }
+        try {
+            check.accept(spooled);
+        } catch (RuntimeException e) {
+            deleteQuietly(spooled);
+            uploadSlots.release();
+            throw e;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(spooled, transform, onUploaded);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    submit(spooled, transform, onUploaded);
+                } else {
+                    deleteQuietly(spooled);
+                    uploadSlots.release();
+                }
+            }
+        });
+    }
+
+    // Multipart parts are already on disk, so this is usually a rename rather than a copy
+    private Path spool(MultipartFile file) {
+        try {
+            Path dir = Files.createDirectories(Paths.get(spoolDir));
+            String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+            Path target = dir.resolve(UUID.randomUUID() + (extension != null ? "." + extension : ""));
+            file.transferTo(target);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store upload", e);
+        }
+    }
+
+    // The reserved slot guarantees room in the pool, so this is only rejected after shutdown
+    private void submit(Path spooled, UnaryOperator<Path> transform, Consumer<String> onUploaded) {
+        try {
+            uploadExecutor.execute(() -> {
+                Path upload = spooled;
+                try {
+                    upload = transform.apply(spooled);
+                    onUploaded.accept(cloudinaryService.uploadFile(upload));
+                } catch (RuntimeException e) {
+                    log.error("Background upload of {} failed: {}", spooled.getFileName(), e.getMessage());
+                } finally {
+                    deleteQuietly(spooled);
+                    if (!upload.equals(spooled)) {
+                        deleteQuietly(upload);
+                    }
+                    uploadSlots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("Background upload of {} rejected: {}", spooled.getFileName(), e.getMessage());
+            deleteQuietly(spooled);
+            uploadSlots.release();
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", path);
+        }
+    }
+}
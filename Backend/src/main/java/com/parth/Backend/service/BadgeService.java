@@ -1,5 +1,10 @@
 package com.parth.Backend.service;
 
+import com.parth.Backend.config.CacheConfig;
+import com.parth.Backend.dto.BadgeAwardSummaryDto;
+import com.parth.Backend.dto.BadgeAwardView;
+import com.parth.Backend.dto.UserBadgeDto;
+import com.parth.Backend.exception.BulkAwardTooLargeException;
 import com.parth.Backend.exception.ResourceNotFoundException;
 import com.parth.Backend.model.Badge;
 import com.parth.Backend.model.UserBadge;
@@ -7,72 +12,136 @@ import com.parth.Backend.repository.BadgeRepo;
 import com.parth.Backend.repository.UserBadgeRepo;
 import com.parth.Backend.repository.UserRepo;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class BadgeService {
+    // Users handled per round of lookups, inserts and the points update; keeps IN lists bounded
+    private static final int BULK_AWARD_CHUNK_SIZE = 1000;
+
     private final BadgeRepo badgeRepo;
     private final UserBadgeRepo userBadgeRepo;
     private final UserRepo userRepo;
-    private final CloudinaryService cloudinaryService;
+    private final BackgroundUploadService backgroundUploadService;
+    private final CacheManager cacheManager;
+    private final UserService userService;
+
+    // Largest user list one bulk award accepts; bigger awards are split by the caller
+    @Value("${badges.bulk-award.max-users:10000}")
+    private int bulkAwardMaxUsers;
 
+    @Cacheable(CacheConfig.BADGES)
     public List<Badge> getAllBadges() {
         return badgeRepo.findAll();
     }
 
-    public List<UserBadge> getUserBadges(Long userId) {
-        return userBadgeRepo.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public List<UserBadgeDto> getUserBadges(Long userId) {
+        return userBadgeRepo.findDtosByUserId(userId, Pageable.unpaged()).getContent();
     }
 
+    @Timed(value = "codekids.badge.award", histogram = true)
     @Transactional
     public UserBadge awardBadge(Long userId, Long badgeId) {
         if (userBadgeRepo.existsByUserIdAndBadgeId(userId, badgeId)) {
             throw new IllegalStateException("User already has this badge");
         }
 
-        var user = userRepo.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         var badge = badgeRepo.findById(badgeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Badge not found"));
 
+        // Update user points when badge is awarded; fails if the user doesn't exist
+        userService.updateUserPoints(userId, calculateBadgePoints(badge));
+
         UserBadge userBadge = new UserBadge();
-        userBadge.setUser(user);
+        userBadge.setUser(userRepo.getReferenceById(userId));
         userBadge.setBadge(badge);
         userBadge.setAwardedAt(LocalDateTime.now());
 
-        // Update user points when badge is awarded
-        user.setPoints(user.getPoints() + calculateBadgePoints(badge));
-        userRepo.save(user);
-
         return userBadgeRepo.save(userBadge);
     }
 
+    /**
+     * Awards a badge to many users at once, e.g. at the end of a term. Unknown users and
+     * existing holders are skipped. Each chunk of users costs one insert statement, which also
+     * reports who was skipped, and one points UPDATE, instead of several statements per user.
+     * Points go only to the users the insert actually awarded, so a concurrent award can't
+     * credit anyone twice. Rows are written with native statements, so no entities build up
+     * in the persistence context.
+     */
+    @Timed(value = "codekids.badge.award.bulk", histogram = true)
+    @Transactional
+    public BadgeAwardSummaryDto awardBadgeToUsers(Long badgeId, Collection<Long> userIds) {
+        if (userIds.size() > bulkAwardMaxUsers) {
+            throw new BulkAwardTooLargeException(
+                    "At most " + bulkAwardMaxUsers + " users can be awarded a badge in one request");
+        }
+        Badge badge = badgeRepo.findById(badgeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Badge not found"));
+        int points = calculateBadgePoints(badge);
+        List<Long> requested = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        LocalDateTime awardedAt = LocalDateTime.now();
+
+        int awarded = 0;
+        int alreadyHeld = 0;
+        int unknownUsers = 0;
+        for (int from = 0; from < requested.size(); from += BULK_AWARD_CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + BULK_AWARD_CHUNK_SIZE, requested.size()));
+            List<BadgeAwardView> rows = userBadgeRepo.insertMissing(badgeId, chunk, awardedAt);
+            List<Long> inserted = rows.stream()
+                    .filter(BadgeAwardView::getAwarded)
+                    .map(BadgeAwardView::getUserId)
+                    .toList();
+            unknownUsers += chunk.size() - rows.size();
+            alreadyHeld += rows.size() - inserted.size();
+            if (inserted.isEmpty()) {
+                continue;
+            }
+            userService.addPointsToAll(inserted, points);
+            awarded += inserted.size();
+        }
+        return new BadgeAwardSummaryDto(badgeId, requested.size(), awarded, alreadyHeld, unknownUsers, points);
+    }
+
     private int calculateBadgePoints(Badge badge) {
         // Basic points calculation for badges
         return 50; // You can implement more complex logic based on badge requirements
     }
 
+    @CacheEvict(value = CacheConfig.BADGES, allEntries = true)
     @Transactional
     public Badge createBadge(Badge badge, MultipartFile file) {
         if (badgeRepo.existsByTitle(badge.getTitle())) {
             throw new IllegalStateException("Badge with this title already exists");
         }
 
+        Badge saved = badgeRepo.save(badge);
         if (file != null && !file.isEmpty()) {
-            String imageUrl = cloudinaryService.uploadFile(file);
-            badge.setImageUrl(imageUrl);
+            Long badgeId = saved.getId();
+            backgroundUploadService.uploadAfterCommit(file, imageUrl -> {
+                badgeRepo.updateImageUrl(badgeId, imageUrl);
+                cacheManager.getCache(CacheConfig.BADGES).clear();
+            });
         }
-
-        return badgeRepo.save(badge);
+        return saved;
     }
 
+    @CacheEvict(value = CacheConfig.BADGES, allEntries = true)
     @Transactional
     public Badge updateBadge(Long id, Badge badge) {
         Badge existingBadge = badgeRepo.findById(id)
@@ -86,6 +155,7 @@ public class BadgeService {
         return badgeRepo.save(existingBadge);
     }
 
+    @CacheEvict(value = CacheConfig.BADGES, allEntries = true)
     @Transactional
     public void deleteBadge(Long id) {
         if (!badgeRepo.existsById(id)) {
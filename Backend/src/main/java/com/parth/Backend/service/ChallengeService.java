@@ -1,6 +1,17 @@
 package com.parth.Backend.service;
 
+import com.parth.Backend.config.CacheConfig;
+import com.parth.Backend.dto.CursorSlice;
+import com.parth.Backend.dto.GradingResult;
+import com.parth.Backend.dto.PendingSubmission;
+import com.parth.Backend.dto.SubmissionVerdictDto;
+import com.parth.Backend.dto.UserChallengeDto;
+import com.parth.Backend.event.ChallengeChangedEvent;
+import com.parth.Backend.event.SubmissionGradedEvent;
+import com.parth.Backend.event.SubmissionQueuedEvent;
 import com.parth.Backend.exception.ResourceNotFoundException;
+import com.parth.Backend.exception.SubmissionPendingException;
+import com.parth.Backend.mapper.UserChallengeMapper;
 import com.parth.Backend.model.Challenge;
 import com.parth.Backend.model.UserChallenge;
 import com.parth.Backend.model.ChallengeStatus;
@@ -8,10 +19,18 @@ import com.parth.Backend.repository.ChallengeRepo;
 import com.parth.Backend.repository.UserChallengeRepo;
 import com.parth.Backend.repository.UserRepo;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -20,65 +39,143 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class ChallengeService {
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final ChallengeRepo challengeRepo;
     private final UserChallengeRepo userChallengeRepo;
     private final UserRepo userRepo;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Cached challenges outlive their session, so test cases are loaded before caching
+    @Cacheable(CacheConfig.CHALLENGE_PAGES)
+    @Transactional(readOnly = true)
     public Page<Challenge> getAllChallenges(Pageable pageable) {
-        return challengeRepo.findAll(pageable);
+        Page<Challenge> challenges = challengeRepo.findAll(pageable);
+        challenges.forEach(challenge -> Hibernate.initialize(challenge.getTestCases()));
+        return challenges;
+    }
+
+    // Keyset alternative to getAllChallenges, ordered by id; cached alongside the pages
+    @Cacheable(CacheConfig.CHALLENGE_PAGES)
+    @Transactional(readOnly = true)
+    public CursorSlice<Challenge> getChallengeSlice(String cursor, int size) {
+        long[] after = SeekCursor.decode(cursor, 1);
+        int limit = SeekCursor.sliceSize(size, MAX_SLICE_SIZE);
+        List<Challenge> rows = challengeRepo.findByIdGreaterThanOrderById(after != null ? after[0] : 0L, Limit.of(limit + 1));
+        boolean hasNext = rows.size() > limit;
+        List<Challenge> challenges = hasNext ? rows.subList(0, limit) : rows;
+        challenges.forEach(challenge -> Hibernate.initialize(challenge.getTestCases()));
+        String nextCursor = hasNext ? SeekCursor.encode(challenges.get(challenges.size() - 1).getId()) : null;
+        return new CursorSlice<>(List.copyOf(challenges), nextCursor, hasNext);
     }
 
+    @Cacheable(CacheConfig.CHALLENGES)
+    @Transactional(readOnly = true)
     public Challenge getChallengeById(Long id) {
-        return challengeRepo.findById(id)
+        Challenge challenge = challengeRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Challenge not found"));
+        Hibernate.initialize(challenge.getTestCases());
+        return challenge;
     }
 
     @Transactional
-    public UserChallenge startChallenge(Long userId, Long challengeId) {
+    public UserChallengeDto startChallenge(Long userId, Long challengeId) {
         UserChallenge userChallenge = new UserChallenge();
         userChallenge.setUser(userRepo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found")));
-        userChallenge.setChallenge(getChallengeById(challengeId));
+        // Test cases aren't needed to start an attempt, so they are left unloaded
+        userChallenge.setChallenge(challengeRepo.findById(challengeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Challenge not found")));
         userChallenge.setStartedAt(LocalDateTime.now());
-        return userChallengeRepo.save(userChallenge);
+        return UserChallengeMapper.mapToUserChallengeDto(userChallengeRepo.save(userChallenge));
     }
 
+    /**
+     * Stores the submission as PENDING and returns straight away; {@link SubmissionGradingWorker}
+     * grades it after commit.
+     *
+     * @throws SubmissionPendingException if the previous submission hasn't been graded yet
+     */
+    @Timed(value = "codekids.challenge.submit", histogram = true)
     @Transactional
-    private boolean evaluateSolution(Challenge challenge, String solution) {
-        // Basic validation
-        if (solution == null || solution.trim().isEmpty()) {
-            return false;
+    public UserChallengeDto submitChallenge(Long userId, Long challengeId, String solution) {
+        // Locked, so of two concurrent submissions the second one sees the first as pending
+        UserChallenge userChallenge = userChallengeRepo.findLatestForUpdate(userId, challengeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Challenge attempt not found"));
+        if (userChallenge.getStatus() == ChallengeStatus.PENDING) {
+            throw new SubmissionPendingException("The previous submission is still being graded");
         }
 
-        // Here you would implement the actual solution evaluation logic
-        // For now, we'll just check if the solution contains required elements
-        String expectedSolution = challenge.getSolutionLogic();
-        return expectedSolution != null && solution.contains(expectedSolution);
+        userChallenge.setStatus(ChallengeStatus.PENDING);
+        userChallenge.setSubmission(solution);
+        userChallenge.setScore(null);
+        userChallenge.setPassedTests(null);
+        userChallenge.setTotalTests(null);
+        userChallenge.setTestResults(null);
+        userChallenge.setTimestamp(LocalDateTime.now());
+        UserChallenge saved = userChallengeRepo.save(userChallenge);
+        eventPublisher.publishEvent(new SubmissionQueuedEvent(saved.getId()));
+        return UserChallengeMapper.mapToUserChallengeDto(saved);
+    }
+
+    // Polled while grading runs, so it's a single projection query
+    @Transactional(readOnly = true)
+    public UserChallengeDto getLatestAttempt(Long userId, Long challengeId) {
+        return userChallengeRepo.findDtoByUserIdAndChallengeId(userId, challengeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Challenge attempt not found"));
+    }
+
+    /**
+     * Everything grading needs, detached from the session; null if the attempt is no longer pending.
+     */
+    @Transactional(readOnly = true)
+    public PendingSubmission loadPendingSubmission(Long attemptId) {
+        return userChallengeRepo.findPendingSubmission(attemptId, ChallengeStatus.PENDING).orElse(null);
     }
 
+    public List<Long> findPendingSubmissionIds(LocalDateTime submittedBefore) {
+        return userChallengeRepo.findIdsByStatusAndTimestampBefore(ChallengeStatus.PENDING, submittedBefore);
+    }
+
+    /**
+     * Applies a verdict under a row lock, so an attempt graded twice (after a retry or on
+     * two instances) only ever awards its points once.
+     */
     @Transactional
-    public UserChallenge submitChallenge(Long userId, Long challengeId, String solution) {
-        UserChallenge userChallenge = userChallengeRepo.findFirstByUserIdAndChallengeIdOrderByTimestampDesc(userId, challengeId)
+    public UserChallenge applyGradingResult(Long attemptId, GradingResult grading) {
+        UserChallenge userChallenge = userChallengeRepo.findByIdForUpdate(attemptId)
                 .orElseThrow(() -> new ResourceNotFoundException("Challenge attempt not found"));
+        if (userChallenge.getStatus() != ChallengeStatus.PENDING) {
+            return userChallenge;
+        }
 
-        boolean isCorrect = evaluateSolution(userChallenge.getChallenge(), solution);
+        userChallenge.setPassedTests(grading.getPassedCount());
+        userChallenge.setTotalTests(grading.getTotalCount());
+        userChallenge.setTestResults(grading.getResults());
         
-        if (isCorrect) {
+        if (grading.isPassed()) {
             userChallenge.setStatus(ChallengeStatus.COMPLETED);
             userChallenge.setScore(calculateScore(userChallenge.getChallenge()));
             
             // Update user points
-            var user = userChallenge.getUser();
-            user.setPoints(user.getPoints() + userChallenge.getScore());
-            userRepo.save(user);
+            userService.updateUserPoints(userChallenge.getUser().getId(), userChallenge.getScore());
         } else {
             userChallenge.setStatus(ChallengeStatus.FAILED);
             userChallenge.setScore(0);
         }
         
-        return userChallengeRepo.save(userChallenge);
+        UserChallenge saved = userChallengeRepo.save(userChallenge);
+        eventPublisher.publishEvent(new SubmissionGradedEvent(saved.getUser().getId(), new SubmissionVerdictDto(
+                saved.getId(), saved.getChallenge().getId(), saved.getStatus(), saved.getScore(),
+                saved.getPassedTests(), saved.getTotalTests(), grading.getResults())));
+        return saved;
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.CHALLENGES, key = "#id"),
+        @CacheEvict(value = CacheConfig.CHALLENGE_PAGES, allEntries = true)
+    })
     @Transactional
     public Challenge activateChallenge(Long id) {
         Challenge challenge = getChallengeById(id);
@@ -86,6 +183,10 @@ public class ChallengeService {
         return challengeRepo.save(challenge);
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.CHALLENGES, key = "#id"),
+        @CacheEvict(value = CacheConfig.CHALLENGE_PAGES, allEntries = true)
+    })
     @Transactional
     public Challenge deactivateChallenge(Long id) {
         Challenge challenge = getChallengeById(id);
@@ -93,6 +194,7 @@ public class ChallengeService {
         return challengeRepo.save(challenge);
     }
 
+    @CacheEvict(value = CacheConfig.CHALLENGE_PAGES, allEntries = true)
     @Transactional
     public Challenge createChallenge(Challenge challenge) {
         // Validate challenge
@@ -107,6 +209,10 @@ public class ChallengeService {
         return challengeRepo.save(challenge);
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.CHALLENGES, key = "#id"),
+        @CacheEvict(value = CacheConfig.CHALLENGE_PAGES, allEntries = true)
+    })
     @Transactional
     public Challenge updateChallenge(Long id, Challenge challenge) {
         Challenge existingChallenge = getChallengeById(id);
@@ -120,9 +226,14 @@ public class ChallengeService {
         existingChallenge.setCodeBlocks(challenge.getCodeBlocks());
         existingChallenge.setSolutionLogic(challenge.getSolutionLogic());
         
+        eventPublisher.publishEvent(new ChallengeChangedEvent(id));
         return challengeRepo.save(existingChallenge);
     }
 
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.CHALLENGES, key = "#id"),
+        @CacheEvict(value = CacheConfig.CHALLENGE_PAGES, allEntries = true)
+    })
     @Transactional
     public void deleteChallenge(Long id) {
         Challenge challenge = getChallengeById(id);
@@ -133,9 +244,10 @@ public class ChallengeService {
         }
         
         challengeRepo.delete(challenge);
+        eventPublisher.publishEvent(new ChallengeChangedEvent(id));
     }
 
-    private int calculateScore(Challenge challenge) {
+    static int calculateScore(Challenge challenge) {
         // Base score from challenge points
         int baseScore = challenge.getPoints() != null ? challenge.getPoints() : 0;
         
@@ -1,22 +1,30 @@
 package com.parth.Backend.service;
 
 import com.cloudinary.Cloudinary;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
+/**
+ * Image host client. Uploads are always streamed from a file on disk (the SDK accepts a
+ * File, a path or a byte[]; only the first two avoid holding the image on the heap).
+ * Uploads are only called from the upload pool, so {@code uploads.threads} caps how many are
+ * in flight and a burst of signups can't open unbounded connections and buffers.
+ */
 @Service
 @RequiredArgsConstructor
 public class CloudinaryService {
     private final Cloudinary cloudinary;
 
-    public String uploadFile(MultipartFile file) {
+    @Timed(value = "codekids.cloudinary.requests", extraTags = {"operation", "upload"}, histogram = true)
+    public String uploadFile(Path file) {
         try {
             Map<String, String> uploadResult = cloudinary.uploader()
-                .upload(file.getBytes(), Map.of(
+                .upload(file.toFile(), Map.of(
                     "folder", "codekids",
                     "resource_type", "auto"
                 ));
@@ -26,6 +34,7 @@ public class CloudinaryService {
         }
     }
 
+    @Timed(value = "codekids.cloudinary.requests", extraTags = {"operation", "delete"}, histogram = true)
     public void deleteFile(String url) {
         try {
             String publicId = extractPublicId(url);
@@ -40,4 +49,4 @@ public class CloudinaryService {
         String fileName = urlParts[urlParts.length - 1];
         return "codekids/" + fileName.substring(0, fileName.lastIndexOf('.'));
     }
-}
\ No newline at end of file
+}
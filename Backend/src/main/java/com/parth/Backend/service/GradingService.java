@@ -0,0 +1,152 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.dto.GradingResult;
+import com.parth.Backend.dto.TestCaseResult;
+import com.parth.Backend.exception.GradingUnavailableException;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.model.TestVerdict;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Grades a submission by running every test case of the challenge in parallel on the
+ * bounded grading pool. Each test gets a CPU time budget that starts when it actually
+ * runs, and submissions over the size cap are rejected before any work is done.
+ * <p>
+ * The submission pipeline grades against a cached {@link TestPlan}; grading a
+ * {@link Challenge} directly compiles its test cases on every call.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GradingService {
+    private final ThreadPoolExecutor gradingExecutor;
+
+    @Value("${grading.test-timeout-ms:500}")
+    private long testTimeoutMs;
+
+    @Value("${grading.max-wait-ms:10000}")
+    private long maxWaitMs;
+
+    @Value("${grading.max-submission-length:20000}")
+    private int maxSubmissionLength;
+
+    public GradingResult grade(Challenge challenge, String solution) {
+        return grade(TestPlan.compile(challenge), solution);
+    }
+
+    GradingResult grade(TestPlan plan, String solution) {
+        if (plan.isEmpty()) {
+            return new GradingResult(List.of(new TestCaseResult(0, TestVerdict.FAILED, "Challenge has no test cases")));
+        }
+        if (solution == null || solution.trim().isEmpty()) {
+            return uniform(plan.size(), TestVerdict.FAILED, "Empty submission");
+        }
+        if (solution.length() > maxSubmissionLength) {
+            return uniform(plan.size(), TestVerdict.ERROR, "Submission is too large");
+        }
+
+        List<Future<TestCaseResult>> futures = new ArrayList<>(plan.size());
+        try {
+            for (int i = 0; i < plan.size(); i++) {
+                int index = i;
+                TestCaseRule rule = plan.rules().get(i);
+                futures.add(gradingExecutor.submit(() -> runTest(index, rule, solution)));
+            }
+        } catch (RejectedExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new GradingUnavailableException("Grading is busy, please try again shortly");
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        List<TestCaseResult> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            results.add(await(i, futures.get(i), deadline));
+        }
+        return new GradingResult(results);
+    }
+
+    private TestCaseResult runTest(int index, TestCaseRule rule, String solution) {
+        if (rule instanceof TestCaseRule.Invalid) {
+            return new TestCaseResult(index, TestVerdict.ERROR, "Invalid test case");
+        }
+        try {
+            long budget = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(testTimeoutMs);
+            boolean passed = rule.matches(new BudgetedCharSequence(solution, budget));
+            return new TestCaseResult(index, passed ? TestVerdict.PASSED : TestVerdict.FAILED, null);
+        } catch (BudgetExceededException e) {
+            return new TestCaseResult(index, TestVerdict.TIMED_OUT, "Test exceeded its time limit");
+        }
+    }
+
+    private TestCaseResult await(int index, Future<TestCaseResult> future, long deadline) {
+        try {
+            return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException e) {
+            future.cancel(true);
+            return new TestCaseResult(index, TestVerdict.TIMED_OUT, "Grading timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new TestCaseResult(index, TestVerdict.ERROR, "Grading was interrupted");
+        } catch (ExecutionException e) {
+            log.error("Test case {} failed to run: {}", index, e.getCause().getMessage());
+            return new TestCaseResult(index, TestVerdict.ERROR, "Test case could not be run");
+        }
+    }
+
+    private static GradingResult uniform(int count, TestVerdict verdict, String message) {
+        List<TestCaseResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(new TestCaseResult(i, verdict, message));
+        }
+        return new GradingResult(results);
+    }
+
+    private static class BudgetExceededException extends RuntimeException {
+        BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Submission view that aborts the current test once its budget is spent or its thread
+     * is cancelled. Regex matching reads through charAt, so runaway backtracking stops too.
+     */
+    private record BudgetedCharSequence(String text, long deadlineNanos) implements CharSequence {
+        @Override
+        public char charAt(int index) {
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() > deadlineNanos) {
+                throw new BudgetExceededException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(text.substring(start, end), deadlineNanos);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.parth.Backend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the id sequences past any ids already in their tables before the app takes traffic.
+ * Rows written while these tables used identity columns would otherwise collide with the
+ * first ids the sequences hand out. Sequences only ever move forward, so blocks already
+ * reserved by running instances stay valid.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+    // Table -> sequence, matching the entities' @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "user_badges", "user_badges_seq",
+            "user_challenges", "user_challenges_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void align() {
+        // Names are constants above, never user input
+        SEQUENCES.forEach((table, sequence) -> {
+            Long moved = jdbcTemplate.query(
+                    "SELECT setval('" + sequence + "', m.max_id) FROM (SELECT MAX(id) AS max_id FROM " + table + ") m "
+                            + "WHERE m.max_id >= (SELECT last_value FROM " + sequence + ")",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (moved != null) {
+                log.info("Advanced {} to {} to clear existing {} ids", sequence, moved, table);
+            }
+        });
+    }
+}
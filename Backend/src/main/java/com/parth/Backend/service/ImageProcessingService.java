@@ -0,0 +1,165 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.exception.InvalidImageException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Turns uploaded avatars into a fixed-size square JPEG before they are stored. Re-encoding
+ * drops EXIF and other metadata, and a full-size photo becomes a few tens of kilobytes,
+ * which is what every leaderboard row downloads.
+ * <p>
+ * Work runs on the bounded image pool. Anything that can't be decoded and re-encoded is
+ * rejected rather than uploaded as is, since the original would keep its metadata.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageProcessingService {
+    private final ThreadPoolExecutor imageExecutor;
+
+    @Value("${uploads.avatar.size:256}")
+    private int avatarSize;
+
+    @Value("${uploads.avatar.quality:0.85}")
+    private float avatarQuality;
+
+    // Refuse to decode anything larger; a small file can still declare a huge canvas
+    @Value("${uploads.avatar.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    /**
+     * Returns the normalised image in a new file next to {@code source}.
+     *
+     * @throws InvalidImageException if the image couldn't be processed; it must not be uploaded
+     */
+    public Path normaliseAvatar(Path source) {
+        try {
+            return imageExecutor.submit(() -> resize(source)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidImageException("Interrupted while processing " + source.getFileName());
+        } catch (ExecutionException e) {
+            log.warn("Avatar {} rejected: {}", source.getFileName(), e.getCause().getMessage());
+            throw new InvalidImageException("Avatar could not be processed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Reads only the image header, so a file {@link #normaliseAvatar} would reject can be
+     * refused while the client is still waiting. The resize itself runs after commit.
+     *
+     * @throws InvalidImageException if the format can't be decoded or the image is too large
+     */
+    public void checkAvatar(Path source) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            ImageReader reader = openReader(input);
+            try {
+                checkPixels(reader);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new InvalidImageException("Avatar could not be processed: " + e.getMessage());
+        }
+    }
+
+    private Path resize(Path source) throws IOException {
+        BufferedImage decoded = decode(source);
+
+        // Centre crop to a square, then scale into an opaque RGB canvas (JPEG has no alpha)
+        int side = Math.min(decoded.getWidth(), decoded.getHeight());
+        int x = (decoded.getWidth() - side) / 2;
+        int y = (decoded.getHeight() - side) / 2;
+        int size = Math.min(avatarSize, side);
+        BufferedImage avatar = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = avatar.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(decoded, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path target = source.resolveSibling(source.getFileName() + ".avatar.jpg");
+        writeJpeg(avatar, target);
+        return target;
+    }
+
+    /**
+     * Decodes with subsampling, so a 4000px photo is read at roughly twice the avatar size
+     * instead of being fully expanded in memory first.
+     */
+    private BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            ImageReader reader = openReader(input);
+            try {
+                checkPixels(reader);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / (avatarSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader openReader(ImageInputStream input) throws IOException {
+        Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+        if (readers == null || !readers.hasNext()) {
+            throw new IOException("Not a format we can resize");
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private void checkPixels(ImageReader reader) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxSourcePixels) {
+            throw new IOException("Image is " + width + "x" + height + ", over the pixel limit");
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (OutputStream file = Files.newOutputStream(target);
+             ImageOutputStream output = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(avatarQuality);
+            // No metadata is passed, so nothing from the original (EXIF, GPS, profiles) is written
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package com.parth.Backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import com.parth.Backend.exception.ResourceNotFoundException;
-import com.parth.Backend.repository.UserRepo;
+import com.parth.Backend.model.Role;
+import com.parth.Backend.model.User;
+import com.parth.Backend.model.UserPrincipal;
 
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -24,7 +38,13 @@ import javax.crypto.SecretKey;
 @Service
 @RequiredArgsConstructor
 public class JWTService {
-    private final UserRepo userRepo;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "tv";
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+
+    private final MeterRegistry meterRegistry;
     
     @Value("${jwt.secret}")
     private String secretKey;
@@ -32,21 +52,152 @@ public class JWTService {
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    // Stream tokens travel in a URL, so they only live long enough to open the connection
+    @Value("${jwt.stream-token.expiration:60000}")
+    private Long streamTokenExpiration;
+
+    @Value("${jwt.key-id:primary}")
+    private String keyId;
+
+    // Retired keys still accepted for verification, as comma-separated kid:base64Secret pairs
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    // Built once at startup; SecretKey and JwtParser are immutable and safe to share
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser jwtParser;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    // Verified claims by token, so a token's signature is checked once rather than on every call
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        initKeys();
+        initClaimsCache();
+    }
+
+    private void initKeys() {
+        signingKey = hmacKey(secretKey);
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        keys.put(keyId, signingKey);
+        for (String entry : previousKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.previous-keys entries must be kid:secret");
+            }
+            keys.putIfAbsent(entry.substring(0, separator).trim(), hmacKey(entry.substring(separator + 1).trim()));
+        }
+        verificationKeys = Map.copyOf(keys);
+
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signingKey; // Issued before tokens carried a key id
+                        }
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new SecurityException("Unknown signing key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    private void initClaimsCache() {
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        // Never serve claims past the token's own expiry
+                        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwtClaims");
+    }
+
     public String generateToken(String username) {
+        return generateToken(username, new HashMap<>());
+    }
+
+    public String generateToken(User user) {
+        return generateToken(user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion());
+    }
+
+    /**
+     * Token that also carries user id, role and token version, so {@link #toStatelessPrincipal}
+     * can authenticate it without loading the user.
+     */
+    public String generateToken(Long userId, String username, Role role, Integer tokenVersion) {
+        return generateToken(username, userClaims(userId, role, tokenVersion), jwtExpiration);
+    }
+
+    /**
+     * Short-lived token that only opens the leaderboard stream. Browsers' EventSource can't
+     * send an Authorization header, so it is passed as a query parameter instead.
+     */
+    public String generateStreamToken(User user) {
+        Map<String, Object> claims = userClaims(user.getId(), user.getRole(), user.getTokenVersion());
+        claims.put(SCOPE_CLAIM, STREAM_SCOPE);
+        return generateToken(user.getUsername(), claims, streamTokenExpiration);
+    }
+
+    public boolean isStreamToken(String token) {
+        return STREAM_SCOPE.equals(extractClaim(token, claims -> claims.get(SCOPE_CLAIM, String.class)));
+    }
+
+    private static Map<String, Object> userClaims(Long userId, Role role, Integer tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(ROLE_CLAIM, role.name());
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion != null ? tokenVersion : 0);
+        return claims;
+    }
+
+    private String generateToken(String username, Map<String, Object> claims) {
+        return generateToken(username, claims, jwtExpiration);
+    }
+
+    private String generateToken(String username, Map<String, Object> claims, long expirationMillis) {
         claims.put("created", new Date(System.currentTimeMillis()));
         
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .claims(claims)
                 .subject(username)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .expiration(new Date(System.currentTimeMillis() + expirationMillis))
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    private static SecretKey hmacKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
@@ -60,23 +211,44 @@ public class JWTService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey)getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        // Invalid tokens throw from the loader and are never cached
+        return verifiedClaims.get(token, this::parseClaims);
+    }
+
+    private Claims parseClaims(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        // The cache expires entries with the token, so a token that never expires isn't accepted
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return claims;
     }
 
+    /**
+     * Checks the token against a freshly loaded user: same username, not expired, and issued
+     * at the user's current token version, so revoked tokens fail here as they do statelessly.
+     */
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
             final String username = extractUserName(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token)
+                    && isCurrentVersion(token, userDetails));
         } catch (Exception e) {
             log.error("Token validation error: {}", e.getMessage());
             return false;
         }
     }
 
+    // Tokens issued before versioning carry no claim and count as version 0, like the user's column
+    private boolean isCurrentVersion(String token, UserDetails userDetails) {
+        if (!(userDetails instanceof UserPrincipal principal)) {
+            return true;
+        }
+        Integer tokenVersion = extractClaim(token, claims -> claims.get(TOKEN_VERSION_CLAIM, Integer.class));
+        Integer userVersion = principal.getUser().getTokenVersion();
+        return (tokenVersion != null ? tokenVersion : 0) == (userVersion != null ? userVersion : 0);
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -85,10 +257,22 @@ public class JWTService {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    public Long getUserIdFromToken(String token) {
-        String username = extractUserName(token);
-        return userRepo.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
-                .getId();
+    /**
+     * Builds a principal from the token's own claims. Returns null for tokens issued
+     * without the user claims, which then need the regular user lookup.
+     */
+    public UserPrincipal toStatelessPrincipal(String token) {
+        Claims claims = extractAllClaims(token);
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        user.setTokenVersion(claims.get(TOKEN_VERSION_CLAIM, Integer.class));
+        return new UserPrincipal(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.dto.UserPointsView;
+import com.parth.Backend.exception.ResourceNotFoundException;
+import com.parth.Backend.repository.UserRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory rank index over user points, with one partition per country. Rank lookups
+ * are O(log n) and never touch the database once the index has been warmed from the
+ * users table.
+ * <p>
+ * Each instance keeps its own copy, so the index is rebuilt periodically to pick up
+ * point changes made through other backend instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaderboardRankIndex {
+    private final UserRepo userRepo;
+
+    // Point totals above this are tracked sparsely, so they don't size every tree
+    @Value("${leaderboard.rank-index.dense-points-limit:65536}")
+    private int densePointsLimit;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Only one rebuild at a time; they share pendingDuringRebuild
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Map<Long, Standing> standings = new HashMap<>();
+    private PointsRankTree tree = new PointsRankTree();
+    private Map<String, PointsRankTree> countryTrees = new HashMap<>();
+    // Updates applied while a rebuild is reading the table; replayed on top of the new snapshot
+    private Map<Long, Standing> pendingDuringRebuild;
+    private volatile boolean ready;
+
+    private record Standing(int points, String country) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        rebuild();
+    }
+
+    @Scheduled(
+        initialDelayString = "${leaderboard.rank-index.refresh-interval-ms:300000}",
+        fixedDelayString = "${leaderboard.rank-index.refresh-interval-ms:300000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        // A rebuild already in progress replays every update made while it runs, so skip this one
+        if (!rebuildLock.tryLock()) {
+            log.debug("Leaderboard rank index rebuild already in progress");
+            return;
+        }
+        try {
+            rebuildExclusively();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildExclusively() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<UserPointsView> rows;
+        try {
+            rows = userRepo.findAllPoints();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to rebuild leaderboard rank index: {}", e.getMessage());
+            return;
+        }
+
+        Map<Long, Standing> freshStandings = new HashMap<>(rows.size() * 2);
+        PointsRankTree freshTree = newTree();
+        Map<String, PointsRankTree> freshCountryTrees = new HashMap<>();
+        for (UserPointsView row : rows) {
+            Standing standing = new Standing(pointsOf(row.getPoints()), row.getCountry());
+            freshStandings.put(row.getId(), standing);
+            freshTree.add(standing.points());
+            if (standing.country() != null) {
+                freshCountryTrees.computeIfAbsent(standing.country(), c -> newTree())
+                    .add(standing.points());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            standings = freshStandings;
+            tree = freshTree;
+            countryTrees = freshCountryTrees;
+            pendingDuringRebuild.forEach(this::applyLocked);
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Leaderboard rank index rebuilt with {} users", rows.size());
+    }
+
+    /**
+     * Records a user's new point total. When called inside a transaction the index is
+     * only touched after commit, so rolled back submissions never leak into ranks.
+     */
+    public void update(Long userId, Integer points) {
+        afterCommit(() -> apply(userId, pointsOf(points), null, false));
+    }
+
+    public void update(Long userId, Integer points, String country) {
+        afterCommit(() -> apply(userId, pointsOf(points), country, true));
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> apply(userId, null, null, false));
+    }
+
+    /**
+     * Rank a user with the given points would have: one more than the number of users
+     * with strictly more points, so ties share a rank.
+     */
+    public int rankForPoints(Integer points) {
+        int value = pointsOf(points);
+        if (!ready) {
+            return (int) (userRepo.countByPointsGreaterThan(value) + 1);
+        }
+        lock.readLock().lock();
+        try {
+            return tree.countAbove(value) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank among users of the same country, using the same tie rules as the global rank.
+     */
+    public int countryRankForPoints(String country, Integer points) {
+        int value = pointsOf(points);
+        if (country == null) {
+            return rankForPoints(value);
+        }
+        if (!ready) {
+            return (int) (userRepo.countByCountryAndPointsGreaterThan(country, value) + 1);
+        }
+        lock.readLock().lock();
+        try {
+            PointsRankTree countryTree = countryTrees.get(country);
+            return (countryTree != null ? countryTree.countAbove(value) : 0) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int rankOf(Long userId) {
+        if (ready) {
+            lock.readLock().lock();
+            try {
+                Standing standing = standings.get(userId);
+                if (standing != null) {
+                    return tree.countAbove(standing.points()) + 1;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        // Not warmed yet, or a user this instance hasn't seen: answer from the database
+        Integer points = userRepo.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"))
+            .getPoints();
+        return rankForPoints(points);
+    }
+
+    public int countryRankOf(Long userId) {
+        if (ready) {
+            lock.readLock().lock();
+            try {
+                Standing standing = standings.get(userId);
+                if (standing != null) {
+                    PointsRankTree countryTree = standing.country() != null ? countryTrees.get(standing.country()) : tree;
+                    return countryTree.countAbove(standing.points()) + 1;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        var user = userRepo.findById(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return countryRankForPoints(user.getCountry(), user.getPoints());
+    }
+
+    private void apply(Long userId, Integer points, String country, boolean countryKnown) {
+        lock.writeLock().lock();
+        try {
+            Standing standing = null;
+            if (points != null) {
+                Standing previous = standings.get(userId);
+                String resolvedCountry = countryKnown || previous == null ? country : previous.country();
+                standing = new Standing(points, resolvedCountry);
+            }
+            applyLocked(userId, standing);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(userId, standing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void applyLocked(Long userId, Standing standing) {
+        Standing previous = standing == null ? standings.remove(userId) : standings.put(userId, standing);
+        if (previous != null) {
+            tree.remove(previous.points());
+            if (previous.country() != null) {
+                countryTrees.get(previous.country()).remove(previous.points());
+            }
+        }
+        if (standing != null) {
+            tree.add(standing.points());
+            if (standing.country() != null) {
+                countryTrees.computeIfAbsent(standing.country(), c -> newTree()).add(standing.points());
+            }
+        }
+    }
+
+    private PointsRankTree newTree() {
+        return new PointsRankTree(PointsRankTree.DEFAULT_CAPACITY, densePointsLimit);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static int pointsOf(Integer points) {
+        return points != null ? points : 0;
+    }
+}
@@ -1,60 +1,106 @@
 package com.parth.Backend.service;
 
+import com.parth.Backend.dto.CursorSlice;
 import com.parth.Backend.dto.LeaderboardEntryDto;
-import com.parth.Backend.exception.ResourceNotFoundException;
-import com.parth.Backend.model.User;
+import com.parth.Backend.dto.LeaderboardEntryView;
+import com.parth.Backend.repository.LeaderboardSnapshotRepo;
 import com.parth.Backend.repository.UserRepo;
-import com.parth.Backend.repository.UserChallengeRepo;
-import com.parth.Backend.repository.UserBadgeRepo;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class LeaderboardService {
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final UserRepo userRepo;
-    private final UserChallengeRepo userChallengeRepo;
-    private final UserBadgeRepo userBadgeRepo;
+    private final LeaderboardRankIndex rankIndex;
+    private final LeaderboardSnapshotRepo snapshotRepo;
+    private final LeaderboardSnapshotService snapshotService;
 
+    @Timed(value = "codekids.leaderboard.page", histogram = true)
     public Page<LeaderboardEntryDto> getLeaderboard(String country, Pageable pageable) {
-        Page<User> users = country != null && !country.isEmpty() ? 
-            userRepo.findAllByCountryOrderByPointsDesc(country, pageable) :
-            userRepo.findAllByOrderByPointsDesc(pageable);
+        // Ordering is fixed by the query; a client-supplied sort would break the ranking
+        Pageable page = pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize())
+            : pageable;
+        if (country != null && !country.isEmpty()) {
+            // The query ranks within the country; the global rank comes from the in-memory index
+            return userRepo.findLeaderboardPageByCountry(country, page)
+                .map(entry -> mapToLeaderboardEntry(entry,
+                    rankIndex.rankForPoints(entry.getPoints()),
+                    entry.getRank().intValue()));
+        }
+        // The snapshot already holds rank and counts, so the page is just an index scan
+        if (snapshotService.isEnabled()) {
+            return snapshotRepo.findLeaderboardPage(page)
+                .map(entry -> mapToLeaderboardEntry(entry, entry.getRank().intValue(), null));
+        }
+        return userRepo.findLeaderboardPage(page)
+            .map(entry -> mapToLeaderboardEntry(entry, entry.getRank().intValue(), null));
+    }
+
+    /**
+     * Keyset variant of {@link #getLeaderboard}: same ordering and ranks, but each slice
+     * seeks from the cursor rather than counting and skipping the rows before it.
+     */
+    @Timed(value = "codekids.leaderboard.slice", histogram = true)
+    public CursorSlice<LeaderboardEntryDto> getLeaderboardSlice(String country, String cursor, int size) {
+        long[] after = SeekCursor.decode(cursor, 2);
+        int points = after != null ? (int) after[0] : Integer.MAX_VALUE;
+        long id = after != null ? after[1] : 0L;
+        int limit = SeekCursor.sliceSize(size, MAX_SLICE_SIZE);
+
+        // One extra row tells us whether there is another slice without a count query
+        boolean byCountry = country != null && !country.isEmpty();
+        List<LeaderboardEntryView> rows;
+        if (byCountry) {
+            rows = userRepo.findLeaderboardByCountryAfter(country, points, id, limit + 1);
+        } else if (snapshotService.isEnabled()) {
+            rows = snapshotRepo.findLeaderboardAfter(points, id, limit + 1);
+        } else {
+            rows = userRepo.findLeaderboardAfter(points, id, limit + 1);
+        }
+        boolean hasNext = rows.size() > limit;
+        List<LeaderboardEntryView> slice = hasNext ? rows.subList(0, limit) : rows;
 
-        return users.map(user -> mapToLeaderboardEntry(user));
+        List<LeaderboardEntryDto> entries = slice.stream()
+            .map(entry -> mapToLeaderboardEntry(entry,
+                // Snapshot rows carry their rank; the live queries leave it to the index
+                entry.getRank() != null ? entry.getRank().intValue() : rankIndex.rankForPoints(entry.getPoints()),
+                byCountry ? rankIndex.countryRankForPoints(country, entry.getPoints()) : null))
+            .toList();
+        LeaderboardEntryView last = slice.isEmpty() ? null : slice.get(slice.size() - 1);
+        String nextCursor = hasNext ? SeekCursor.encode(last.getPoints(), last.getUserId()) : null;
+        return new CursorSlice<>(entries, nextCursor, hasNext);
     }
 
-    private LeaderboardEntryDto mapToLeaderboardEntry(User user) {
+    static LeaderboardEntryDto mapToLeaderboardEntry(LeaderboardEntryView entry, Integer rank, Integer countryRank) {
         return new LeaderboardEntryDto(
-            user.getId(),
-            user.getUsername(),
-            user.getAvatar(),
-            user.getPoints(),
-            calculateRank(user.getId()),
-            countCompletedChallenges(user.getId()),
-            countEarnedBadges(user.getId())
+            entry.getUserId(),
+            entry.getUsername(),
+            entry.getAvatar(),
+            entry.getPoints(),
+            rank,
+            countryRank,
+            entry.getCompletedChallenges().intValue(),
+            entry.getEarnedBadges().intValue()
         );
     }
 
     public Integer getUserRank(Long userId) {
-        return calculateRank(userId);
-    }
-
-    private Integer calculateRank(Long userId) {
-        User user = userRepo.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return (int) (userRepo.countByPointsGreaterThan(user.getPoints()) + 1);
-    }
-
-    private Integer countCompletedChallenges(Long userId) {
-        return userChallengeRepo.countCompletedChallengesByUserId(userId).intValue();
+        return rankIndex.rankOf(userId);
     }
 
-    private Integer countEarnedBadges(Long userId) {
-        return userBadgeRepo.findByUserId(userId).size();
+    public Integer getUserCountryRank(Long userId) {
+        return rankIndex.countryRankOf(userId);
     }
-}
\ No newline at end of file
+}
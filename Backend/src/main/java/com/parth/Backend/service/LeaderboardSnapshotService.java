@@ -0,0 +1,167 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.event.BulkPointsChangedEvent;
+import com.parth.Backend.event.PointsChangedEvent;
+import com.parth.Backend.event.UserCreatedEvent;
+import com.parth.Backend.event.UserDeletedEvent;
+import com.parth.Backend.repository.LeaderboardSnapshotRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@code leaderboard_snapshot} in step with users' points so global leaderboard reads
+ * are a plain index scan, however many attempts and badges there are.
+ * <p>
+ * Each committed point change shifts the ranks it affects and rewrites the mover's row. A
+ * signup gets a row at zero points, and a deleted user's row is removed. Bulk changes are
+ * queued and applied off the request thread: the movers' rows are copied from
+ * {@code users} and only the band of points they moved through is re-ranked.
+ * Anything the events don't cover (changes that race each other, writes from outside the
+ * application) is put right by the periodic full rebuild. Off unless
+ * {@code leaderboard.snapshot.enabled} is set.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardSnapshotService {
+    // Advisory lock key for rebuilds, shared by every instance
+    private static final long REBUILD_LOCK = 0x636b6c62L;
+    // Keeps each IN list well under the driver's bind parameter limit
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    private final LeaderboardSnapshotRepo snapshotRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${leaderboard.snapshot.enabled:false}")
+    private boolean enabled;
+
+    // Users moved by bulk changes and not yet applied; rows are read from users, so ids are enough
+    private final Set<Long> pendingBulkUsers = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        refresh();
+    }
+
+    @Scheduled(
+        initialDelayString = "${leaderboard.snapshot.rebuild-interval-ms:900000}",
+        fixedDelayString = "${leaderboard.snapshot.rebuild-interval-ms:900000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild leaderboard snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every row in one transaction; readers keep seeing the previous snapshot
+     * until it commits.
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!snapshotRepo.tryRebuildLock(REBUILD_LOCK)) {
+                log.debug("Leaderboard snapshot rebuild already running elsewhere");
+                return;
+            }
+            snapshotRepo.deleteAllRows();
+            int rows = snapshotRepo.insertAllRows();
+            log.debug("Leaderboard snapshot rebuilt with {} users", rows);
+        });
+    }
+
+    // Runs after the points commit, so its own transaction is needed to write
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPointsChanged(PointsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int previous = event.previousPoints() != null ? event.previousPoints() : 0;
+        int points = event.points() != null ? event.points() : 0;
+        if (previous != points) {
+            snapshotRepo.shiftRanksBetween(event.userId(), previous, points);
+        }
+        snapshotRepo.upsertRow(event.userId(), points);
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserCreated(UserCreatedEvent event) {
+        if (enabled) {
+            snapshotRepo.upsertRow(event.userId(), 0);
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> points = snapshotRepo.findPointsByUserIds(List.of(event.userId()));
+        if (!points.isEmpty() && snapshotRepo.deleteRow(event.userId()) > 0) {
+            snapshotRepo.shiftRanksBelow(points.get(0));
+        }
+    }
+
+    // A bulk change moves too many ranks to shift row by row, so it's applied as a set
+    @TransactionalEventListener
+    public void onBulkPointsChanged(BulkPointsChangedEvent event) {
+        if (enabled) {
+            pendingBulkUsers.addAll(event.totals().keySet());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot.bulk-apply-interval-ms:1000}")
+    public void applyBulkChanges() {
+        if (pendingBulkUsers.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(pendingBulkUsers);
+        pendingBulkUsers.removeAll(userIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBulkChanges(userIds));
+        } catch (RuntimeException e) {
+            // Retried on the next tick; the periodic rebuild also covers these users
+            pendingBulkUsers.addAll(userIds);
+            log.error("Failed to apply bulk leaderboard snapshot changes: {}", e.getMessage());
+        }
+    }
+
+    private void applyBulkChanges(List<Long> userIds) {
+        IntSummaryStatistics moved = new IntSummaryStatistics();
+        for (int from = 0; from < userIds.size(); from += BULK_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, userIds.size()));
+            snapshotRepo.findPointsByUserIds(chunk).forEach(moved::accept);
+            snapshotRepo.upsertRowsFromUsers(chunk);
+            snapshotRepo.findPointsByUserIds(chunk).forEach(moved::accept);
+        }
+        if (moved.getCount() > 0) {
+            int rows = snapshotRepo.recomputeRanksBetween(moved.getMin(), moved.getMax());
+            log.debug("Applied {} bulk snapshot changes, re-ranked {} rows", userIds.size(), rows);
+        }
+    }
+}
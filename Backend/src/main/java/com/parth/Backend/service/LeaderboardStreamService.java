@@ -0,0 +1,203 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.dto.RankDeltaDto;
+import com.parth.Backend.dto.SubmissionVerdictDto;
+import com.parth.Backend.event.BulkPointsChangedEvent;
+import com.parth.Backend.event.PointsChangedEvent;
+import com.parth.Backend.event.SubmissionGradedEvent;
+import com.parth.Backend.stream.LeaderboardStreamMessage;
+import com.parth.Backend.stream.LeaderboardStreamRelay;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes leaderboard changes and submission verdicts to SSE subscribers.
+ * <p>
+ * Point changes are coalesced per user and flushed as one "ranks" event per interval, so a
+ * burst of submissions costs each client a single small message. Every connection has a
+ * bounded buffer and at most one send in flight; a client that falls behind has its buffer
+ * dropped and receives a "resync" event telling it to reload the leaderboard instead.
+ * <p>
+ * Subscribers may be connected to any instance, so local changes also go out over the
+ * {@link LeaderboardStreamRelay}: point totals once per flush, verdicts as they happen.
+ * Point changes from other instances join the next local flush.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardStreamService {
+    private final LeaderboardRankIndex rankIndex;
+    private final ThreadPoolExecutor streamExecutor;
+    private final LeaderboardStreamRelay streamRelay;
+
+    @Value("${leaderboard.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${leaderboard.stream.buffer-size:32}")
+    private int bufferSize;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Latest points per user since the last flush
+    private final Map<Long, Integer> pendingPoints = new ConcurrentHashMap<>();
+    // The local subset of pendingPoints, still to be relayed to the other instances
+    private final Map<Long, Integer> pendingRelay = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribeToRelay() {
+        streamRelay.subscribe(this::onRelayed);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onPointsChanged(PointsChangedEvent event) {
+        pendingPoints.put(event.userId(), event.points());
+        pendingRelay.put(event.userId(), event.points());
+    }
+
+    @TransactionalEventListener
+    public void onBulkPointsChanged(BulkPointsChangedEvent event) {
+        pendingPoints.putAll(event.totals());
+        pendingRelay.putAll(event.totals());
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionGraded(SubmissionGradedEvent event) {
+        sendVerdict(event.userId(), event.verdict());
+        streamRelay.publishVerdict(event.userId(), event.verdict());
+    }
+
+    private void onRelayed(LeaderboardStreamMessage message) {
+        if (message.points() != null) {
+            pendingPoints.putAll(message.points());
+        } else if (message.verdict() != null) {
+            sendVerdict(message.userId(), message.verdict());
+        } else {
+            // The relay may have missed messages, so nobody's view can be trusted
+            Message resync = new Message("resync", "");
+            subscribers.forEach(subscriber -> {
+                enqueue(subscriber, resync);
+                drain(subscriber);
+            });
+        }
+    }
+
+    private void sendVerdict(Long userId, SubmissionVerdictDto verdict) {
+        Message message = new Message("verdict", verdict);
+        for (Subscriber subscriber : subscribers) {
+            if (userId.equals(subscriber.userId)) {
+                enqueue(subscriber, message);
+                drain(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.stream.flush-interval-ms:1000}")
+    public void flush() {
+        relayPendingPoints();
+        List<RankDeltaDto> deltas = new ArrayList<>();
+        for (Long userId : pendingPoints.keySet()) {
+            // Removing per key keeps changes that land mid-flush for the next round
+            Integer points = pendingPoints.remove(userId);
+            if (points != null) {
+                deltas.add(new RankDeltaDto(userId, points, rankIndex.rankForPoints(points)));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            Message message = new Message("ranks", deltas);
+            subscribers.forEach(subscriber -> enqueue(subscriber, message));
+        }
+        subscribers.forEach(this::drain);
+    }
+
+    private void relayPendingPoints() {
+        Map<Long, Integer> relayed = new HashMap<>();
+        for (Long userId : pendingRelay.keySet()) {
+            Integer points = pendingRelay.remove(userId);
+            if (points != null) {
+                relayed.put(userId, points);
+            }
+        }
+        if (!relayed.isEmpty()) {
+            streamRelay.publishPoints(relayed);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (!subscriber.buffer.offer(message)) {
+            // Too far behind for deltas to be useful; replace the backlog with a single resync
+            subscriber.buffer.clear();
+            subscriber.buffer.offer(new Message("resync", ""));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (subscriber.buffer.isEmpty() || !subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> send(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            Message message;
+            while ((message = subscriber.buffer.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event().name(message.name()).data(message.data()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping leaderboard subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    // Event builders can't be reused across emitters, so buffers hold the raw name and payload
+    private record Message(String name, Object data) {
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Message> buffer;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, Queue<Message> buffer) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.parth.Backend.service;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Fenwick tree over point values. Each slot holds the number of users with exactly
+ * that many points, so "how many users are ahead of X points" is a prefix sum.
+ * <p>
+ * The arrays only grow up to {@code denseLimit}; the rare totals at or above it are kept
+ * in a sorted map instead, so one user with a huge total can't make every tree huge.
+ * Not thread-safe; {@link LeaderboardRankIndex} guards it with a lock.
+ */
+final class PointsRankTree {
+    static final int DEFAULT_DENSE_LIMIT = 1 << 16;
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final int denseLimit;
+    private int[] counts;
+    private int[] tree;
+    private int size;
+    // Point value -> number of users, for values >= denseLimit
+    private final TreeMap<Integer, Integer> sparse = new TreeMap<>();
+    private int sparseSize;
+
+    PointsRankTree() {
+        this(DEFAULT_CAPACITY, DEFAULT_DENSE_LIMIT);
+    }
+
+    PointsRankTree(int capacity, int denseLimit) {
+        this.denseLimit = Math.max(denseLimit, 1);
+        this.counts = new int[Math.min(Math.max(capacity, 1), this.denseLimit)];
+        this.tree = new int[counts.length + 1];
+    }
+
+    void add(int points) {
+        adjust(normalize(points), 1);
+    }
+
+    void remove(int points) {
+        adjust(normalize(points), -1);
+    }
+
+    /**
+     * Number of users with strictly more points than the given value.
+     */
+    int countAbove(int points) {
+        int value = normalize(points);
+        if (value >= denseLimit) {
+            int above = 0;
+            for (int count : sparse.tailMap(value, false).values()) {
+                above += count;
+            }
+            return above;
+        }
+        if (value >= counts.length) {
+            return sparseSize;
+        }
+        return size - prefixSum(value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void adjust(int value, int delta) {
+        if (value >= denseLimit) {
+            sparse.compute(value, (v, count) -> {
+                int updated = (count != null ? count : 0) + delta;
+                return updated != 0 ? updated : null;
+            });
+            sparseSize += delta;
+            size += delta;
+            return;
+        }
+        ensureCapacity(value);
+        counts[value] += delta;
+        size += delta;
+        for (int i = value + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Sum of counts[0..value]
+    private int prefixSum(int value) {
+        int sum = 0;
+        for (int i = value + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void ensureCapacity(int value) {
+        if (value < counts.length) {
+            return;
+        }
+        // Computed in long: doubling a value of 2^30 or more overflows an int
+        int capacity = (int) Math.min((long) Integer.highestOneBit(value) << 1, denseLimit);
+        counts = Arrays.copyOf(counts, capacity);
+        tree = new int[capacity + 1];
+        // Linear-time rebuild of the Fenwick array from the raw counts
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] += counts[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // Points are never negative in practice; clamp so a bad adjustment can't break the index
+    private static int normalize(int points) {
+        return Math.max(points, 0);
+    }
+}
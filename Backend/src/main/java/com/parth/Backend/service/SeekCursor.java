@@ -0,0 +1,50 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Continuation tokens for keyset pagination: the sort key of the last row returned, encoded
+ * so clients treat it as opaque and don't build their own.
+ */
+final class SeekCursor {
+    private static final int MAX_LENGTH = 100;
+
+    private SeekCursor() {
+    }
+
+    static String encode(long... keys) {
+        String joined = String.join(":", Arrays.stream(keys).mapToObj(Long::toString).toList());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the {@code expectedKeys} values in the cursor, or null for a missing cursor
+     * (the first slice).
+     */
+    static long[] decode(String cursor, int expectedKeys) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            if (cursor.length() > MAX_LENGTH) {
+                throw new IllegalArgumentException();
+            }
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != expectedKeys) {
+                throw new IllegalArgumentException();
+            }
+            return Arrays.stream(parts).mapToLong(Long::parseLong).toArray();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
+    // Slice sizes are capped so a cursor endpoint can't be used to pull the whole table
+    static int sliceSize(int requested, int max) {
+        return Math.max(1, Math.min(requested, max));
+    }
+}
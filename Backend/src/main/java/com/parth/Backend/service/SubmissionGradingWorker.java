@@ -0,0 +1,113 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.dto.GradingResult;
+import com.parth.Backend.dto.PendingSubmission;
+import com.parth.Backend.event.SubmissionQueuedEvent;
+import com.parth.Backend.exception.GradingUnavailableException;
+import com.parth.Backend.model.UserChallenge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grades PENDING submissions off the request thread. Grading runs without a transaction
+ * or pooled connection; only loading the attempt and applying the verdict touch the database.
+ * <p>
+ * Work that is rejected, interrupted or lost in a restart stays PENDING and is picked up
+ * again by {@link #requeueStalled()}.
+ * <p>
+ * {@code codekids.challenge.grading.queue} times the wait for a worker thread, and
+ * {@code codekids.challenge.grading} each step after it ({@code step=grade} or {@code apply}),
+ * and {@code codekids.challenge.verdict.latency} the whole way from queue to stored verdict.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubmissionGradingWorker {
+    private final ChallengeService challengeService;
+    private final GradingService gradingService;
+    private final TestPlanCache testPlanCache;
+    private final ThreadPoolExecutor submissionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${grading.stalled-after:2m}")
+    private Duration stalledAfter;
+
+    @TransactionalEventListener
+    public void onSubmissionQueued(SubmissionQueuedEvent event) {
+        enqueue(event.attemptId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        challengeService.findPendingSubmissionIds(LocalDateTime.now()).forEach(this::enqueue);
+    }
+
+    @Scheduled(
+        initialDelayString = "${grading.recovery-interval-ms:60000}",
+        fixedDelayString = "${grading.recovery-interval-ms:60000}")
+    public void requeueStalled() {
+        challengeService.findPendingSubmissionIds(LocalDateTime.now().minus(stalledAfter)).forEach(this::enqueue);
+    }
+
+    private void enqueue(Long attemptId) {
+        long queuedAt = System.nanoTime();
+        try {
+            submissionExecutor.execute(() -> {
+                Timer.builder("codekids.challenge.grading.queue")
+                        .description("Time submissions wait for a grading worker")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                process(attemptId, queuedAt);
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("codekids.challenge.submissions.deferred", "reason", "queue_full").increment();
+            log.warn("Submission queue full, attempt {} will be retried", attemptId);
+        }
+    }
+
+    private void process(Long attemptId, long queuedAt) {
+        try {
+            PendingSubmission submission = challengeService.loadPendingSubmission(attemptId);
+            if (submission == null) {
+                return; // Already graded by another worker or instance
+            }
+            TestPlan plan = testPlanCache.planFor(submission.getChallengeId(), submission.getChallengeVersion());
+            GradingResult grading = gradingStep("grade").record(() -> gradingService.grade(plan, submission.getSolution()));
+            UserChallenge graded = gradingStep("apply").record(() -> challengeService.applyGradingResult(attemptId, grading));
+            meterRegistry.counter("codekids.challenge.verdicts", "status", graded.getStatus().name()).increment();
+            Timer.builder("codekids.challenge.verdict.latency")
+                    .description("Time from queueing a submission to storing its verdict")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        } catch (GradingUnavailableException e) {
+            meterRegistry.counter("codekids.challenge.submissions.deferred", "reason", "grading_busy").increment();
+            log.warn("Grading pool busy, attempt {} will be retried", attemptId);
+        } catch (RuntimeException e) {
+            log.error("Failed to grade attempt {}: {}", attemptId, e.getMessage());
+        }
+    }
+
+    private Timer gradingStep(String step) {
+        return Timer.builder("codekids.challenge.grading")
+                .description("Time spent grading a submission and storing its verdict")
+                .tag("step", step)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.parth.Backend.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * One check from {@code Challenge.testCases}. Submissions are block programs, so a test
+ * case is a rule about the submitted text rather than code to execute:
+ * <ul>
+ *   <li>{@code contains:TEXT} / {@code not-contains:TEXT}</li>
+ *   <li>{@code equals:TEXT} - whole submission, ignoring surrounding whitespace</li>
+ *   <li>{@code regex:PATTERN} - found anywhere in the submission</li>
+ *   <li>{@code sequence:a,b,c} - each item appears after the previous one</li>
+ * </ul>
+ * Whitespace around the text after the colon is ignored, so {@code contains: print} looks for
+ * {@code print}; a regex pattern is the exception and is used exactly as written. Anything
+ * without a known prefix is treated as {@code contains:}, matching how {@code solutionLogic}
+ * was checked before.
+ */
+sealed interface TestCaseRule {
+
+    boolean matches(CharSequence submission);
+
+    static TestCaseRule parse(String testCase) {
+        int separator = testCase.indexOf(':');
+        String kind = separator > 0 ? testCase.substring(0, separator).trim() : "";
+        String argument = separator > 0 ? testCase.substring(separator + 1) : testCase;
+        return switch (kind) {
+            case "contains" -> new Contains(argument.trim());
+            case "not-contains" -> new NotContains(argument.trim());
+            case "equals" -> new Equals(argument.trim());
+            case "regex" -> new Regex(Pattern.compile(argument));
+            case "sequence" -> new Sequence(Arrays.stream(argument.split(","))
+                    .map(String::trim)
+                    .filter(item -> !item.isEmpty())
+                    .toList());
+            default -> new Contains(testCase);
+        };
+    }
+
+    record Contains(String text) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            return submission.toString().contains(text);
+        }
+    }
+
+    record NotContains(String text) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            return !submission.toString().contains(text);
+        }
+    }
+
+    record Equals(String text) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            return submission.toString().trim().equals(text);
+        }
+    }
+
+    record Regex(Pattern pattern) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            // Matches against the submission wrapper directly so the time budget is enforced mid-match
+            return pattern.matcher(submission).find();
+        }
+    }
+
+    // Stands in for a test case that failed to compile, so it is reported rather than retried
+    record Invalid(String reason) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            throw new IllegalStateException(reason);
+        }
+    }
+
+    record Sequence(List<String> items) implements TestCaseRule {
+        @Override
+        public boolean matches(CharSequence submission) {
+            String text = submission.toString();
+            int from = 0;
+            for (String item : items) {
+                int found = text.indexOf(item, from);
+                if (found < 0) {
+                    return false;
+                }
+                from = found + item.length();
+            }
+            return true;
+        }
+    }
+}
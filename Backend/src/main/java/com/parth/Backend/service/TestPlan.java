@@ -0,0 +1,50 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.model.Challenge;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A challenge's test cases parsed and compiled once, for a single challenge version.
+ * Plans are immutable, so concurrent gradings of a hot challenge share one instance.
+ */
+@Slf4j
+record TestPlan(Long challengeId, long version, List<TestCaseRule> rules) {
+
+    TestPlan {
+        rules = List.copyOf(rules);
+    }
+
+    static TestPlan compile(Challenge challenge) {
+        List<String> testCases = testCasesOf(challenge);
+        List<TestCaseRule> rules = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            try {
+                rules.add(TestCaseRule.parse(testCases.get(i)));
+            } catch (PatternSyntaxException e) {
+                log.error("Invalid test case pattern in challenge {} at index {}: {}", challenge.getId(), i, e.getMessage());
+                rules.add(new TestCaseRule.Invalid(e.getDescription()));
+            }
+        }
+        return new TestPlan(challenge.getId(), challenge.getVersion(), rules);
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    // Challenges created before test cases existed are graded against solutionLogic alone
+    private static List<String> testCasesOf(Challenge challenge) {
+        if (challenge.getTestCases() != null && !challenge.getTestCases().isEmpty()) {
+            return challenge.getTestCases();
+        }
+        return challenge.getSolutionLogic() != null ? List.of(challenge.getSolutionLogic()) : List.of();
+    }
+}
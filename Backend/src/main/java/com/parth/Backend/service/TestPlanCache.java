@@ -0,0 +1,87 @@
+package com.parth.Backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parth.Backend.cache.CacheInvalidationBus;
+import com.parth.Backend.config.CacheConfig;
+import com.parth.Backend.event.ChallengeChangedEvent;
+import com.parth.Backend.exception.ResourceNotFoundException;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.repository.ChallengeRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Compiled test plans per challenge. A plan is reused only while its version matches the
+ * version the attempt was submitted against, so a stale entry is recompiled rather than
+ * graded. Edited or deleted challenges also drop their plan on every instance after commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class TestPlanCache {
+    public static final String CACHE_NAME = "testPlans";
+
+    private final ChallengeService challengeService;
+    private final ChallengeRepo challengeRepo;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${grading.test-plan-cache.max-size:1000}")
+    private long maxSize;
+
+    private Cache<Long, TestPlan> plans;
+
+    @PostConstruct
+    void initCache() {
+        plans = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, CACHE_NAME);
+        cacheInvalidationBus.subscribe(event -> {
+            if (event.cacheName() == null || (CACHE_NAME.equals(event.cacheName()) && event.key() == null)) {
+                plans.invalidateAll();
+            } else if (CACHE_NAME.equals(event.cacheName())) {
+                plans.invalidate(Long.valueOf(event.key()));
+            }
+        });
+    }
+
+    TestPlan planFor(Long challengeId, long version) {
+        TestPlan plan = plans.getIfPresent(challengeId);
+        if (plan != null && plan.version() == version) {
+            return plan;
+        }
+        // The catalogue copy may already be newer than the attempt, which is fine to grade against,
+        // or still older if this instance hasn't seen the invalidation yet, which isn't
+        TestPlan compiled = TestPlan.compile(challengeService.getChallengeById(challengeId));
+        if (compiled.version() < version) {
+            compiled = TestPlan.compile(reloadChallenge(challengeId));
+        }
+        plans.asMap().merge(challengeId, compiled,
+                (existing, candidate) -> existing.version() >= candidate.version() ? existing : candidate);
+        return compiled;
+    }
+
+    private Challenge reloadChallenge(Long challengeId) {
+        org.springframework.cache.Cache challenges = cacheManager.getCache(CacheConfig.CHALLENGES);
+        if (challenges != null) {
+            challenges.evict(challengeId);
+        }
+        return challengeRepo.findUncachedById(challengeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Challenge not found"));
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        plans.invalidate(event.challengeId());
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(event.challengeId()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.parth.Backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parth.Backend.cache.CacheInvalidationBus;
+import com.parth.Backend.repository.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user, used to revoke stateless tokens. Versions are cached
+ * briefly so a request only reaches the database on a miss, and then only for one column.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+    public static final String CACHE_NAME = "tokenVersions";
+    // Cached for users that no longer exist, so their tokens never match
+    private static final int REVOKED = -1;
+
+    private final UserRepo userRepo;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${jwt.stateless-principal.version-cache-ttl:60s}")
+    private Duration versionCacheTtl;
+
+    @Value("${jwt.stateless-principal.version-cache-max-size:10000}")
+    private long versionCacheMaxSize;
+
+    private Cache<Long, Integer> versions;
+
+    @PostConstruct
+    void initCache() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(versionCacheMaxSize)
+                .expireAfterWrite(versionCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, CACHE_NAME);
+        cacheInvalidationBus.subscribe(event -> {
+            if (event.cacheName() == null || (CACHE_NAME.equals(event.cacheName()) && event.key() == null)) {
+                versions.invalidateAll();
+            } else if (CACHE_NAME.equals(event.cacheName())) {
+                versions.invalidate(Long.valueOf(event.key()));
+            }
+        });
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        int current = versions.get(userId, id -> userRepo.findTokenVersionById(id)
+                .map(version -> version != null ? version : 0)
+                .orElse(REVOKED));
+        return current != REVOKED && current == (tokenVersion != null ? tokenVersion : 0);
+    }
+
+    /**
+     * Drops the cached version on every instance once the surrounding transaction commits,
+     * so the next request for this user sees the bumped or deleted row.
+     */
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        } else {
+            evictNow(userId);
+        }
+    }
+
+    private void evictNow(Long userId) {
+        versions.invalidate(userId);
+        cacheInvalidationBus.publish(CACHE_NAME, String.valueOf(userId));
+    }
+}
@@ -1,27 +1,48 @@
 package com.parth.Backend.service;
 
+import com.parth.Backend.dto.UserBadgeDto;
+import com.parth.Backend.dto.UserChallengeDto;
 import com.parth.Backend.dto.UserDto;
+import com.parth.Backend.dto.UserPointsView;
+import com.parth.Backend.event.BulkPointsChangedEvent;
+import com.parth.Backend.event.PointsChangedEvent;
+import com.parth.Backend.event.UserCreatedEvent;
+import com.parth.Backend.event.UserDeletedEvent;
 import com.parth.Backend.exception.ResourceNotFoundException;
 import com.parth.Backend.exception.UserAlreadyExistsException;
 import com.parth.Backend.mapper.UserMapper;
 import com.parth.Backend.model.User;
-import com.parth.Backend.model.UserBadge;
-import com.parth.Backend.model.UserChallenge;
+import com.parth.Backend.repository.UserBadgeRepo;
+import com.parth.Backend.repository.UserChallengeRepo;
 import com.parth.Backend.repository.UserRepo;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepo userRepo;
+    private final UserChallengeRepo userChallengeRepo;
+    private final UserBadgeRepo userBadgeRepo;
     private final PasswordEncoder passwordEncoder;
     private final CloudinaryService cloudinaryService;
+    private final BackgroundUploadService backgroundUploadService;
+    private final ImageProcessingService imageProcessingService;
+    private final LeaderboardRankIndex rankIndex;
+    private final TokenVersionRegistry tokenVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public UserDto createUser(UserDto userDto, MultipartFile file) {
@@ -36,12 +57,18 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setPoints(0);
 
+        User savedUser = userRepo.save(user);
+        rankIndex.update(savedUser.getId(), savedUser.getPoints(), savedUser.getCountry());
+        // Puts the new user on the snapshot leaderboard straight away rather than at the next rebuild
+        eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId()));
+
+        // The avatar is filled in once the upload finishes; signup doesn't wait for the image host
         if (file != null && !file.isEmpty()) {
-            String avatarUrl = cloudinaryService.uploadFile(file);
-            user.setAvatar(avatarUrl);
+            Long userId = savedUser.getId();
+            backgroundUploadService.uploadAfterCommit(file, imageProcessingService::checkAvatar,
+                    imageProcessingService::normaliseAvatar,
+                    avatarUrl -> userRepo.updateAvatar(userId, avatarUrl));
         }
-
-        User savedUser = userRepo.save(user);
         return UserMapper.mapToUserDto(savedUser);
     }
 
@@ -51,6 +78,10 @@ public class UserService {
         return UserMapper.mapToUserDto(user);
     }
 
+    /**
+     * Applies the non-null fields of {@code userDto}. Changing the username or password revokes
+     * every token issued to the user, including the caller's, so the client has to log in again.
+     */
     @Transactional
     public UserDto updateUser(Long id, UserDto userDto) {
         User user = userRepo.findById(id)
@@ -61,6 +92,9 @@ public class UserService {
                 userRepo.existsByUsername(userDto.getUsername())) {
                 throw new UserAlreadyExistsException("Username already exists");
             }
+            if (!user.getUsername().equals(userDto.getUsername())) {
+                revokeTokens(user);
+            }
             user.setUsername(userDto.getUsername());
         }
         
@@ -74,17 +108,23 @@ public class UserService {
         
         if (userDto.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(userDto.getPassword()));
+            revokeTokens(user);
         }
         
         if (userDto.getAvatar() != null) {
             user.setAvatar(userDto.getAvatar());
         }
         
+        boolean countryChanged = false;
         if (userDto.getCountry() != null) {
+            countryChanged = !userDto.getCountry().equals(user.getCountry());
             user.setCountry(userDto.getCountry());
         }
         
         User updatedUser = userRepo.save(user);
+        if (countryChanged) {
+            rankIndex.update(id, updatedUser.getPoints(), updatedUser.getCountry());
+        }
         return UserMapper.mapToUserDto(updatedUser);
     }
 
@@ -94,26 +134,69 @@ public class UserService {
             throw new ResourceNotFoundException("User not found");
         }
         userRepo.deleteById(id);
+        rankIndex.remove(id);
+        tokenVersions.evict(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
+    }
+
+    // Invalidates every token issued to this user, whether it's checked statelessly or against the
+    // loaded user; call on role or credential changes
+    private void revokeTokens(User user) {
+        user.setTokenVersion((user.getTokenVersion() != null ? user.getTokenVersion() : 0) + 1);
+        tokenVersions.evict(user.getId());
     }
 
-    public Set<UserBadge> getUserBadges(Long id) {
-        return userRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
-                .getBadges();
+    // Paged DTO queries: a profile with hundreds of attempts is still one join per page
+    @Transactional(readOnly = true)
+    public Page<UserBadgeDto> getUserBadges(Long id, Pageable pageable) {
+        requireUser(id);
+        return userBadgeRepo.findDtosByUserId(id, unsorted(pageable));
     }
 
-    public Set<UserChallenge> getUserChallenges(Long id) {
-        return userRepo.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"))
-                .getChallenges();
+    @Transactional(readOnly = true)
+    public Page<UserChallengeDto> getUserChallenges(Long id, Pageable pageable) {
+        requireUser(id);
+        return userChallengeRepo.findDtosByUserId(id, unsorted(pageable));
     }
 
+    private void requireUser(Long id) {
+        if (!userRepo.existsById(id)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+    }
+
+    // Ordering is fixed by the queries (newest first)
+    private static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+
+    /**
+     * Adds points in a single UPDATE and returns the new total. Every points change goes
+     * through here so concurrent submissions can't lose each other's updates.
+     */
     @Transactional
-    public void updateUserPoints(Long id, Integer points) {
-        User user = userRepo.findById(id)
+    public Integer updateUserPoints(Long id, Integer points) {
+        Integer total = userRepo.addPoints(id, points)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        user.setPoints(user.getPoints() + points);
-        userRepo.save(user);
+        rankIndex.update(id, total);
+        eventPublisher.publishEvent(new PointsChangedEvent(id, total - points, total));
+        return total;
+    }
+
+    /**
+     * Bulk form of {@link #updateUserPoints}: one UPDATE for every user in {@code ids}, and a
+     * single {@link BulkPointsChangedEvent} rather than one event per user.
+     */
+    @Transactional
+    public List<UserPointsView> addPointsToAll(Collection<Long> ids, int points) {
+        List<UserPointsView> totals = userRepo.addPointsToAll(ids, points);
+        Map<Long, Integer> newTotals = new HashMap<>(totals.size() * 2);
+        for (UserPointsView total : totals) {
+            rankIndex.update(total.getId(), total.getPoints(), total.getCountry());
+            newTotals.put(total.getId(), total.getPoints());
+        }
+        eventPublisher.publishEvent(new BulkPointsChangedEvent(newTotals));
+        return totals;
     }
 
     @Transactional
@@ -121,16 +204,15 @@ public class UserService {
         User user = userRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        // Delete old avatar if exists
-        if (user.getAvatar() != null) {
-            cloudinaryService.deleteFile(user.getAvatar());
-        }
-
-        // Upload new avatar
-        String avatarUrl = cloudinaryService.uploadFile(file);
-        user.setAvatar(avatarUrl);
-        
-        User updatedUser = userRepo.save(user);
-        return UserMapper.mapToUserDto(updatedUser);
+        // The old avatar is kept until the new one is stored, so the user always has one
+        String previousAvatar = user.getAvatar();
+        backgroundUploadService.uploadAfterCommit(file, imageProcessingService::checkAvatar,
+                imageProcessingService::normaliseAvatar, avatarUrl -> {
+            userRepo.updateAvatar(id, avatarUrl);
+            if (previousAvatar != null) {
+                cloudinaryService.deleteFile(previousAvatar);
+            }
+        });
+        return UserMapper.mapToUserDto(user);
     }
 }
\ No newline at end of file
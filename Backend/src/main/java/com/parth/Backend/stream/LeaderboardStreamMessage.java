@@ -0,0 +1,14 @@
+package com.parth.Backend.stream;
+
+import com.parth.Backend.dto.SubmissionVerdictDto;
+
+import java.util.Map;
+
+/**
+ * Stream traffic from node {@code origin}: new point totals (user id to points), or a
+ * verdict for {@code userId}'s subscribers. A message with neither means the receiving
+ * node may have missed some, so its subscribers should resync.
+ */
+public record LeaderboardStreamMessage(String origin, Map<Long, Integer> points, Long userId,
+                                       SubmissionVerdictDto verdict) {
+}
@@ -0,0 +1,19 @@
+package com.parth.Backend.stream;
+
+import com.parth.Backend.dto.SubmissionVerdictDto;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Carries leaderboard stream events to the other backend instances, so a subscriber sees
+ * changes made on whichever node handled the request or graded the submission. Listeners
+ * only see messages published by other nodes; local subscribers are served by the caller.
+ */
+public interface LeaderboardStreamRelay {
+    void publishPoints(Map<Long, Integer> points);
+
+    void publishVerdict(Long userId, SubmissionVerdictDto verdict);
+
+    void subscribe(Consumer<LeaderboardStreamMessage> listener);
+}
@@ -0,0 +1,56 @@
+package com.parth.Backend.stream;
+
+import com.parth.Backend.dto.SubmissionVerdictDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process relay for single-instance deployments and tests. {@link #join()} creates another
+ * "node" on the same in-memory network, so multi-instance behaviour can be exercised
+ * without a database.
+ */
+public class LocalLeaderboardStreamRelay implements LeaderboardStreamRelay {
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<LocalLeaderboardStreamRelay> network;
+    private final List<Consumer<LeaderboardStreamMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public LocalLeaderboardStreamRelay() {
+        this(new CopyOnWriteArrayList<>());
+    }
+
+    private LocalLeaderboardStreamRelay(List<LocalLeaderboardStreamRelay> network) {
+        this.network = network;
+        network.add(this);
+    }
+
+    public LocalLeaderboardStreamRelay join() {
+        return new LocalLeaderboardStreamRelay(network);
+    }
+
+    @Override
+    public void publishPoints(Map<Long, Integer> points) {
+        send(new LeaderboardStreamMessage(nodeId, Map.copyOf(points), null, null));
+    }
+
+    @Override
+    public void publishVerdict(Long userId, SubmissionVerdictDto verdict) {
+        send(new LeaderboardStreamMessage(nodeId, null, userId, verdict));
+    }
+
+    @Override
+    public void subscribe(Consumer<LeaderboardStreamMessage> listener) {
+        listeners.add(listener);
+    }
+
+    private void send(LeaderboardStreamMessage message) {
+        for (LocalLeaderboardStreamRelay node : network) {
+            if (node != this) {
+                node.listeners.forEach(listener -> listener.accept(message));
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.parth.Backend.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parth.Backend.cache.PostgresNotifyChannel;
+import com.parth.Backend.dto.SubmissionVerdictDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Relay over Postgres LISTEN/NOTIFY, on the same {@link PostgresNotifyChannel} that
+ * {@code PostgresCacheInvalidationBus} uses to reach other replicas. Verdicts are published
+ * from commit callbacks, so publishing only queues the message for the channel's own
+ * connection and never takes one from the request pool.
+ * <p>
+ * A notification payload must stay under 8000 bytes, so point totals are sent in chunks
+ * and a verdict too large to fit is sent without its per-test results (the attempt can
+ * still be fetched in full).
+ */
+@Slf4j
+public class PostgresLeaderboardStreamRelay implements LeaderboardStreamRelay, SmartLifecycle {
+    private static final String CHANNEL = "codekids_leaderboard_stream";
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POINTS_PER_MESSAGE = 200;
+
+    private final ObjectMapper objectMapper;
+    private final PostgresNotifyChannel channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<LeaderboardStreamMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public PostgresLeaderboardStreamRelay(DataSource notifyDataSource, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        // Anything relayed while we weren't listening is lost, so subscribers resync
+        this.channel = new PostgresNotifyChannel(CHANNEL, "leaderboard-stream", notifyDataSource,
+                this::handle, () -> dispatch(new LeaderboardStreamMessage(null, null, null, null)));
+    }
+
+    @Override
+    public void publishPoints(Map<Long, Integer> points) {
+        Map<Long, Integer> chunk = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : points.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == POINTS_PER_MESSAGE) {
+                send(new LeaderboardStreamMessage(nodeId, chunk, null, null));
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            send(new LeaderboardStreamMessage(nodeId, chunk, null, null));
+        }
+    }
+
+    @Override
+    public void publishVerdict(Long userId, SubmissionVerdictDto verdict) {
+        send(new LeaderboardStreamMessage(nodeId, null, userId, verdict));
+    }
+
+    @Override
+    public void subscribe(Consumer<LeaderboardStreamMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        channel.start();
+    }
+
+    @Override
+    public void stop() {
+        channel.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return channel.isRunning();
+    }
+
+    private void send(LeaderboardStreamMessage message) {
+        try {
+            channel.publish(payload(message));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to relay leaderboard stream message: {}", e.getMessage());
+        }
+    }
+
+    private String payload(LeaderboardStreamMessage message) throws JsonProcessingException {
+        String payload = objectMapper.writeValueAsString(message);
+        if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES || message.verdict() == null) {
+            return payload;
+        }
+        SubmissionVerdictDto verdict = message.verdict();
+        SubmissionVerdictDto summary = new SubmissionVerdictDto(verdict.getAttemptId(), verdict.getChallengeId(),
+                verdict.getStatus(), verdict.getScore(), verdict.getPassedTests(), verdict.getTotalTests(), null);
+        return objectMapper.writeValueAsString(new LeaderboardStreamMessage(nodeId, null, message.userId(), summary));
+    }
+
+    private void handle(String payload) {
+        try {
+            LeaderboardStreamMessage message = objectMapper.readValue(payload, LeaderboardStreamMessage.class);
+            if (!nodeId.equals(message.origin())) {
+                dispatch(message);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed leaderboard stream payload: {}", payload);
+        }
+    }
+
+    private void dispatch(LeaderboardStreamMessage message) {
+        for (Consumer<LeaderboardStreamMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException e) {
+                log.error("Leaderboard stream listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
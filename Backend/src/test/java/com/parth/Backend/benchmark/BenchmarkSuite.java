@@ -0,0 +1,30 @@
+package com.parth.Backend.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs every JMH benchmark in the project and writes the results to
+ * {@code <output-dir>/jmh.json}. Invoked by the {@code benchmark} Maven profile; pass a
+ * regex as the second argument to run a subset.
+ */
+public final class BenchmarkSuite {
+
+	private BenchmarkSuite() {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		File outputDir = new File(args.length > 0 ? args[0] : "target/benchmarks");
+		outputDir.mkdirs();
+		String include = args.length > 1 ? args[1] : "com\\.parth\\.Backend\\..*Benchmark";
+		new Runner(new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(new File(outputDir, "jmh.json").getPath())
+				.build()).run();
+	}
+}
@@ -0,0 +1,141 @@
+package com.parth.Backend.benchmark;
+
+import com.parth.Backend.service.JWTService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Token generation and validation throughput. The legacy* benchmarks replay the old
+ * per-call key decoding and parser building so both paths can be compared in one run.
+ * {@code validateToken} is mostly served by the claims cache, so {@code parseClaims} and
+ * {@code legacyParseClaims} compare a single parse (a cache miss) on their own.
+ * Run {@link #main} with the test classpath after {@code mvnw test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTServiceBenchmark {
+	static final String SECRET = Base64.getEncoder()
+			.encodeToString("codekids-benchmark-secret-key-of-at-least-256-bits".getBytes());
+	// The private loader behind the claims cache; a handle adds nothing measurable to a parse
+	private static final MethodHandle PARSE_CLAIMS = parseClaimsHandle();
+
+	private JWTService jwtService;
+	private UserDetails userDetails;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtService = newJwtService();
+		userDetails = User.withUsername("bench-user").password("unused").build();
+		token = jwtService.generateToken(userDetails.getUsername());
+	}
+
+	static JWTService newJwtService() {
+		JWTService service = new JWTService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "secretKey", SECRET);
+		ReflectionTestUtils.setField(service, "jwtExpiration", 86_400_000L);
+		ReflectionTestUtils.setField(service, "keyId", "primary");
+		ReflectionTestUtils.setField(service, "previousKeys", "");
+		ReflectionTestUtils.setField(service, "claimsCacheMaxSize", 10_000L);
+		ReflectionTestUtils.invokeMethod(service, "init");
+		return service;
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtService.generateToken("bench-user");
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return jwtService.extractUserName(token) != null && jwtService.validateToken(token, userDetails);
+	}
+
+	@Benchmark
+	public Claims parseClaims() throws Throwable {
+		return (Claims) PARSE_CLAIMS.invokeExact(jwtService, token);
+	}
+
+	@Benchmark
+	public String legacyGenerateToken() {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.claim("created", new Date(now))
+				.subject("bench-user")
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + 86_400_000L))
+				.signWith(legacySigningKey())
+				.compact();
+	}
+
+	@Benchmark
+	public boolean legacyValidateToken() {
+		// JwtFilter used to parse three times per request: username, then username and expiry
+		String username = legacyParse().getSubject();
+		return username.equals(legacyParse().getSubject()) && !legacyParse().getExpiration().before(new Date());
+	}
+
+	@Benchmark
+	public Claims legacyParseClaims() {
+		return legacyParse();
+	}
+
+	private Claims legacyParse() {
+		return Jwts.parser()
+				.verifyWith(legacySigningKey())
+				.build()
+				.parseSignedClaims(token)
+				.getPayload();
+	}
+
+	private static MethodHandle parseClaimsHandle() {
+		try {
+			return MethodHandles.privateLookupIn(JWTService.class, MethodHandles.lookup())
+					.findVirtual(JWTService.class, "parseClaims", MethodType.methodType(Claims.class, String.class));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static SecretKey legacySigningKey() {
+		return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JWTServiceBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
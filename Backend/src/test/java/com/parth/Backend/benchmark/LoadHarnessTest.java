@@ -0,0 +1,271 @@
+package com.parth.Backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.model.ChallengeStatus;
+import com.parth.Backend.model.Difficulty;
+import com.parth.Backend.model.User;
+import com.parth.Backend.repository.ChallengeRepo;
+import com.parth.Backend.repository.UserRepo;
+import com.parth.Backend.service.JWTService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Drives the start, submit and leaderboard flows through the full filter chain against an
+ * embedded Postgres, and writes p50, p99 and throughput per flow to
+ * {@code <benchmark.output-dir>/load-harness.json}. Tagged so it only runs under
+ * {@code -Pbenchmark}; sizes can be changed with {@code -Dbenchmark.users},
+ * {@code -Dbenchmark.concurrency} and {@code -Dbenchmark.operations}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+	"jwt.secret=Y29kZWtpZHMtbG9hZC1oYXJuZXNzLXNlY3JldC1rZXktb2YtYXQtbGVhc3QtMjU2LWJpdHM=",
+	"cloudinary.cloud-name=benchmark",
+	"cloudinary.api-key=benchmark",
+	"cloudinary.api-secret=benchmark",
+	"spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class LoadHarnessTest {
+	private static final int USERS = Integer.getInteger("benchmark.users", 200);
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 8);
+	private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 2000);
+	private static final String SOLUTION = "when flag clicked repeat 4 move 10 turn right 90";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private ChallengeRepo challengeRepo;
+
+	@Autowired
+	private JWTService jwtService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final List<String> tokens = new ArrayList<>();
+	private final List<Long> challengeIds = new ArrayList<>();
+
+	@TestConfiguration
+	static class EmbeddedDatabase {
+		@Bean(destroyMethod = "close")
+		EmbeddedPostgres embeddedPostgres() throws IOException {
+			return EmbeddedPostgres.start();
+		}
+
+		// Depends on the server bean, so the pool is closed before the server stops
+		@Bean
+		HikariDataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+			HikariDataSource dataSource = new HikariDataSource();
+			dataSource.setJdbcUrl(embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+			dataSource.setUsername("postgres");
+			return dataSource;
+		}
+	}
+
+	@Test
+	void runLoadHarness() throws Exception {
+		seed();
+
+		List<Map<String, Object>> flows = new ArrayList<>();
+		flows.add(measureRequests("leaderboard", i -> get("/api/leaderboard")
+				.param("page", String.valueOf(i % 10))
+				.param("size", "20")
+				.header(HttpHeaders.AUTHORIZATION, bearer(i))));
+		flows.add(measureRequests("start", i -> post("/api/challenges/{id}/start", challengeFor(i))
+				.header(HttpHeaders.AUTHORIZATION, bearer(i))));
+		flows.add(measureRequests("submit", i -> post("/api/challenges/{id}/submit", challengeFor(i))
+				.contentType(MediaType.TEXT_PLAIN)
+				.content(SOLUTION)
+				.header(HttpHeaders.AUTHORIZATION, bearer(i))));
+		flows.add(measureSubmitToVerdict());
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("timestamp", Instant.now().toString());
+		report.put("commit", System.getProperty("benchmark.commit", ""));
+		report.put("users", USERS);
+		report.put("concurrency", CONCURRENCY);
+		report.put("flows", flows);
+		File outputDir = new File(System.getProperty("benchmark.output-dir", "target/benchmarks"));
+		outputDir.mkdirs();
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(outputDir, "load-harness.json"), report);
+
+		flows.forEach(flow -> assertEquals(0, flow.get("errors"), "Errors in flow " + flow.get("name")));
+	}
+
+	private void seed() {
+		List<User> users = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("bench-" + i);
+			user.setEmail("bench-" + i + "@example.com");
+			user.setPassword("unused");
+			user.setCountry(i % 2 == 0 ? "IN" : "US");
+			user.setPoints(i * 10);
+			users.add(user);
+		}
+		userRepo.saveAll(users).forEach(user -> tokens.add(jwtService.generateToken(user)));
+
+		// A user can start each challenge once, so every start in a run needs its own pair
+		int challenges = (warmUpOperations() + OPERATIONS + USERS - 1) / USERS;
+		for (int i = 0; i < challenges; i++) {
+			Challenge challenge = new Challenge();
+			challenge.setTitle("Draw a square " + i);
+			challenge.setDifficulty(Difficulty.BEGINNER);
+			challenge.setPoints(10);
+			challenge.setTestCases(List.of(
+					"sequence:when flag clicked,repeat,move",
+					"contains:turn right",
+					"not-contains:forever",
+					"regex:repeat\\s+\\d+"));
+			challengeIds.add(challengeRepo.save(challenge).getId());
+		}
+	}
+
+	// Operation i acts as user i % USERS on challenge i / USERS
+	private String bearer(int operation) {
+		return "Bearer " + tokens.get(operation % USERS);
+	}
+
+	private Long challengeFor(int operation) {
+		return challengeIds.get(operation / USERS);
+	}
+
+	private static int warmUpOperations() {
+		return Math.max(OPERATIONS / 5, 1);
+	}
+
+	private Map<String, Object> measureRequests(String name, RequestFactory requests) throws InterruptedException {
+		return measure(name, i -> expectSuccess(mockMvc.perform(requests.create(i)).andReturn()));
+	}
+
+	// Resubmission to verdict, including the polling a client would do while the attempt is PENDING
+	private Map<String, Object> measureSubmitToVerdict() throws InterruptedException {
+		return measure("submit-to-verdict", i -> {
+			String token = bearer(i);
+			Long challengeId = challengeFor(i);
+			expectSuccess(mockMvc.perform(post("/api/challenges/{id}/submit", challengeId)
+					.contentType(MediaType.TEXT_PLAIN)
+					.content(SOLUTION)
+					.header(HttpHeaders.AUTHORIZATION, token)).andReturn());
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (System.nanoTime() < deadline) {
+				MvcResult result = mockMvc.perform(get("/api/challenges/{id}/submission", challengeId)
+						.header(HttpHeaders.AUTHORIZATION, token)).andReturn();
+				expectSuccess(result);
+				String status = objectMapper.readTree(result.getResponse().getContentAsString()).path("status").asText();
+				if (!ChallengeStatus.PENDING.name().equals(status)) {
+					return;
+				}
+				Thread.sleep(2);
+			}
+			throw new IllegalStateException("Submission was not graded within 30s");
+		});
+	}
+
+	private Map<String, Object> measure(String name, Operation operation) throws InterruptedException {
+		// Warm-up pass so class loading, JIT and caches don't land in the measured run
+		run(operation, 0, warmUpOperations());
+		long started = System.nanoTime();
+		Run run = run(operation, warmUpOperations(), OPERATIONS);
+		double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+		long[] latencies = run.latencies();
+		Arrays.sort(latencies);
+		Map<String, Object> flow = new LinkedHashMap<>();
+		flow.put("name", name);
+		flow.put("operations", OPERATIONS);
+		flow.put("errors", run.errors());
+		flow.put("throughputPerSecond", round(OPERATIONS / elapsedSeconds));
+		flow.put("p50Ms", round(percentile(latencies, 0.50) / 1e6));
+		flow.put("p99Ms", round(percentile(latencies, 0.99) / 1e6));
+		flow.put("maxMs", round(latencies[latencies.length - 1] / 1e6));
+		return flow;
+	}
+
+	private Run run(Operation operation, int firstOperation, int operations) throws InterruptedException {
+		long[] latencies = new long[operations];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+		for (int w = 0; w < CONCURRENCY; w++) {
+			workers.execute(() -> {
+				int i;
+				while ((i = next.getAndIncrement()) < operations) {
+					long start = System.nanoTime();
+					try {
+						operation.run(firstOperation + i);
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - start;
+				}
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(10, TimeUnit.MINUTES);
+		return new Run(latencies, errors.get());
+	}
+
+	private static void expectSuccess(MvcResult result) {
+		int status = result.getResponse().getStatus();
+		if (status >= 400) {
+			throw new IllegalStateException("HTTP " + status + " for " + result.getRequest().getRequestURI());
+		}
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted[Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0)];
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 1000) / 1000.0;
+	}
+
+	private record Run(long[] latencies, int errors) {
+	}
+
+	@FunctionalInterface
+	private interface RequestFactory {
+		RequestBuilder create(int operation);
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+		void run(int operation) throws Exception;
+	}
+}
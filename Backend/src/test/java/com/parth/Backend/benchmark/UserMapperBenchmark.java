@@ -0,0 +1,55 @@
+package com.parth.Backend.benchmark;
+
+import com.parth.Backend.dto.UserDto;
+import com.parth.Backend.mapper.UserMapper;
+import com.parth.Backend.model.Role;
+import com.parth.Backend.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+	private User user;
+	private UserDto userDto;
+
+	@Setup
+	public void setUp() {
+		user = new User();
+		user.setId(42L);
+		user.setUsername("bench-user");
+		user.setEmail("bench@example.com");
+		user.setPassword("hashed");
+		user.setAvatar("https://example.com/avatar.png");
+		user.setPoints(1200);
+		user.setCountry("IN");
+		user.setCreatedAt(LocalDateTime.now());
+		user.setRole(Role.ROLE_USER);
+		userDto = UserMapper.mapToUserDto(user);
+	}
+
+	@Benchmark
+	public UserDto mapToUserDto() {
+		return UserMapper.mapToUserDto(user);
+	}
+
+	@Benchmark
+	public User mapToUser() {
+		return UserMapper.mapToUser(userDto);
+	}
+}
@@ -0,0 +1,45 @@
+package com.parth.Backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BroadcastingCacheManagerTest {
+
+	@Test
+	void evictionOnOneNodeClearsTheCacheOnOtherNodes() {
+		LocalCacheInvalidationBus busA = new LocalCacheInvalidationBus();
+		LocalCacheInvalidationBus busB = busA.join();
+		BroadcastingCacheManager nodeA = new BroadcastingCacheManager(new ConcurrentMapCacheManager("challenges"), busA);
+		BroadcastingCacheManager nodeB = new BroadcastingCacheManager(new ConcurrentMapCacheManager("challenges"), busB);
+
+		Cache cacheA = nodeA.getCache("challenges");
+		Cache cacheB = nodeB.getCache("challenges");
+		cacheA.put(1L, "old");
+		cacheA.put(2L, "other");
+		cacheB.put(1L, "old");
+
+		cacheA.evict(1L);
+
+		assertNull(cacheA.get(1L));
+		assertNotNull(cacheA.get(2L));
+		assertNull(cacheB.get(1L));
+	}
+
+	@Test
+	void clearOnOneNodeClearsOtherNodes() {
+		LocalCacheInvalidationBus busA = new LocalCacheInvalidationBus();
+		LocalCacheInvalidationBus busB = busA.join();
+		BroadcastingCacheManager nodeA = new BroadcastingCacheManager(new ConcurrentMapCacheManager("badges"), busA);
+		BroadcastingCacheManager nodeB = new BroadcastingCacheManager(new ConcurrentMapCacheManager("badges"), busB);
+
+		nodeA.getCache("badges").put("all", "list");
+		nodeB.getCache("badges").clear();
+
+		assertNull(nodeA.getCache("badges").get("all"));
+	}
+
+}
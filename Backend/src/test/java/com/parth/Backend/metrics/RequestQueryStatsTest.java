@@ -0,0 +1,44 @@
+package com.parth.Backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestQueryStatsTest {
+
+	@Test
+	void statementsDifferingOnlyInValuesShareAShape() {
+		assertEquals("select * from badges where id in (?) and name=?",
+				RequestQueryStats.shapeOf("select * from badges  where id in (1, 2, 3) and name='O''Brien'"));
+		assertEquals(RequestQueryStats.shapeOf("select * from users where id=?"),
+				RequestQueryStats.shapeOf("select * from users\n where id=42"));
+	}
+
+	@Test
+	void longInListsAndLiteralsAreShapedWithoutOverflowingTheStack() {
+		String ids = String.join(", ", Collections.nCopies(20_000, "?"));
+		String text = "x".repeat(20_000);
+
+		assertEquals("update users set note=? where id in (?)",
+				RequestQueryStats.shapeOf("update users set note='" + text + "' where id in (" + ids + ")"));
+	}
+
+	@Test
+	void reportsTheMostRepeatedShape() {
+		RequestQueryStats stats = new RequestQueryStats();
+		stats.record(List.of("select * from users where id=?"), 1_000);
+		for (int i = 0; i < 4; i++) {
+			stats.record(List.of("select * from challenges where id=" + i), 1_000);
+		}
+
+		Map.Entry<String, Integer> top = stats.mostRepeatedShape();
+		assertEquals(5, stats.getStatementCount());
+		assertEquals(5_000, stats.getJdbcNanos());
+		assertEquals("select * from challenges where id=?", top.getKey());
+		assertEquals(4, top.getValue());
+	}
+}
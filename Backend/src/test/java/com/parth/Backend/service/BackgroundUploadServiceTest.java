@@ -0,0 +1,91 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.config.UploadConfig;
+import com.parth.Backend.exception.InvalidImageException;
+import com.parth.Backend.exception.UploadUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundUploadServiceTest {
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch uploaded = new CountDownLatch(3);
+	private ThreadPoolExecutor executor;
+	private BackgroundUploadService backgroundUploadService;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void setUp() {
+		executor = new UploadConfig().uploadExecutor(1, 1);
+		CloudinaryService blockingHost = new CloudinaryService(null) {
+			@Override
+			public String uploadFile(Path file) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "https://example.com/" + file.getFileName();
+			}
+		};
+		backgroundUploadService = new BackgroundUploadService(blockingHost, executor);
+		ReflectionTestUtils.setField(backgroundUploadService, "spoolDir", tempDir.toString());
+		backgroundUploadService.initSlots();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void refusesUploadsOnceThePoolIsFullAndAcceptsThemAgainWhenASlotFrees() throws InterruptedException {
+		backgroundUploadService.uploadAfterCommit(image(), url -> uploaded.countDown());
+		backgroundUploadService.uploadAfterCommit(image(), url -> uploaded.countDown());
+
+		assertThrows(UploadUnavailableException.class,
+				() -> backgroundUploadService.uploadAfterCommit(image(), url -> uploaded.countDown()));
+
+		release.countDown();
+		while (executor.getCompletedTaskCount() < 2) {
+			Thread.sleep(5);
+		}
+		assertDoesNotThrow(() -> backgroundUploadService.uploadAfterCommit(image(), url -> uploaded.countDown()));
+		assertTrue(uploaded.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failedCheckDeletesTheSpooledFileAndFreesItsSlot() throws IOException {
+		for (int i = 0; i < 3; i++) {
+			assertThrows(InvalidImageException.class, () -> backgroundUploadService.uploadAfterCommit(image(),
+					spooled -> { throw new InvalidImageException("bad"); }, UnaryOperator.identity(), url -> { }));
+		}
+		try (Stream<Path> spooled = Files.list(tempDir)) {
+			assertEquals(0, spooled.count());
+		}
+		assertDoesNotThrow(() -> backgroundUploadService.uploadAfterCommit(image(), url -> uploaded.countDown()));
+	}
+
+	private static MockMultipartFile image() {
+		return new MockMultipartFile("file", "avatar.png", "image/png", new byte[] {1, 2, 3});
+	}
+}
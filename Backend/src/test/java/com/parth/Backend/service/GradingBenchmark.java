@@ -0,0 +1,87 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.config.GradingConfig;
+import com.parth.Backend.dto.GradingResult;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.model.Difficulty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading and scoring cost per submission. {@code gradeWithCachedPlan} is the submission
+ * pipeline's hot path; {@code gradeCompilingPlan} adds the per-call parsing a plan cache miss pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingBenchmark {
+	private ThreadPoolExecutor executor;
+	private GradingService gradingService;
+	private Challenge challenge;
+	private TestPlan plan;
+	private String solution;
+
+	@Setup
+	public void setUp() {
+		executor = new GradingConfig().gradingExecutor(0, 1000);
+		gradingService = new GradingService(executor);
+		ReflectionTestUtils.setField(gradingService, "testTimeoutMs", 500L);
+		ReflectionTestUtils.setField(gradingService, "maxWaitMs", 10_000L);
+		ReflectionTestUtils.setField(gradingService, "maxSubmissionLength", 20_000);
+
+		challenge = new Challenge();
+		challenge.setId(1L);
+		challenge.setPoints(10);
+		challenge.setDifficulty(Difficulty.INTERMEDIATE);
+		challenge.setTestCases(List.of(
+				"sequence:when flag clicked,repeat,move",
+				"contains:turn right",
+				"not-contains:forever",
+				"regex:repeat\\s+\\d+",
+				"equals:when flag clicked repeat 4 move 10 turn right 90"));
+		plan = TestPlan.compile(challenge);
+		solution = "when flag clicked repeat 4 move 10 turn right 90";
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public GradingResult gradeWithCachedPlan() {
+		return gradingService.grade(plan, solution);
+	}
+
+	@Benchmark
+	public GradingResult gradeCompilingPlan() {
+		return gradingService.grade(challenge, solution);
+	}
+
+	@Benchmark
+	public TestPlan compilePlan() {
+		return TestPlan.compile(challenge);
+	}
+
+	@Benchmark
+	public int calculateScore() {
+		return ChallengeService.calculateScore(challenge);
+	}
+}
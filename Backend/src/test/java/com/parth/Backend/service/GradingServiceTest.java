@@ -0,0 +1,94 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.config.GradingConfig;
+import com.parth.Backend.dto.GradingResult;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.model.TestVerdict;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradingServiceTest {
+	private ThreadPoolExecutor executor;
+	private GradingService gradingService;
+
+	@BeforeEach
+	void setUp() {
+		executor = new GradingConfig().gradingExecutor(2, 100);
+		gradingService = new GradingService(executor);
+		ReflectionTestUtils.setField(gradingService, "testTimeoutMs", 200L);
+		ReflectionTestUtils.setField(gradingService, "maxWaitMs", 5000L);
+		ReflectionTestUtils.setField(gradingService, "maxSubmissionLength", 1000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void gradesEachTestCase() {
+		Challenge challenge = new Challenge();
+		challenge.setTestCases(List.of("sequence:for,print", "contains:i", "not-contains:while", "regex:print\\(\\w+\\)"));
+
+		GradingResult result = gradingService.grade(challenge, "for i in range(3): print(i)");
+
+		assertTrue(result.isPassed());
+		assertEquals(4, result.getPassedCount());
+	}
+
+	@Test
+	void reportsFailedAndTimedOutTestsSeparately() {
+		Challenge challenge = new Challenge();
+		challenge.setTestCases(List.of("sequence:print,for", "regex:(.*a){20}b"));
+
+		GradingResult result = gradingService.grade(challenge, "for print " + "a".repeat(40));
+
+		assertFalse(result.isPassed());
+		assertEquals(TestVerdict.FAILED, result.getResults().get(0).getVerdict());
+		assertEquals(TestVerdict.TIMED_OUT, result.getResults().get(1).getVerdict());
+	}
+
+	@Test
+	void ignoresWhitespaceAfterTheRulePrefix() {
+		Challenge challenge = new Challenge();
+		challenge.setTestCases(List.of("contains: print", "not-contains:  while ", "equals: print(i) "));
+
+		GradingResult result = gradingService.grade(challenge, "print(i)");
+
+		assertTrue(result.isPassed());
+		assertEquals(3, result.getPassedCount());
+	}
+
+	@Test
+	void fallsBackToSolutionLogicWithoutTestCases() {
+		Challenge challenge = new Challenge();
+		challenge.setSolutionLogic("print");
+
+		assertTrue(gradingService.grade(challenge, "print hello").isPassed());
+		assertFalse(gradingService.grade(challenge, "   ").isPassed());
+	}
+
+	@Test
+	void compiledPlanIsReusedAndReportsInvalidPatterns() {
+		Challenge challenge = new Challenge();
+		challenge.setTestCases(List.of("contains:print", "regex:(unclosed"));
+		TestPlan plan = TestPlan.compile(challenge);
+
+		GradingResult first = gradingService.grade(plan, "print a");
+		GradingResult second = gradingService.grade(plan, "loop");
+
+		assertEquals(TestVerdict.PASSED, first.getResults().get(0).getVerdict());
+		assertEquals(TestVerdict.ERROR, first.getResults().get(1).getVerdict());
+		assertEquals(TestVerdict.FAILED, second.getResults().get(0).getVerdict());
+		assertEquals(TestVerdict.ERROR, second.getResults().get(1).getVerdict());
+	}
+}
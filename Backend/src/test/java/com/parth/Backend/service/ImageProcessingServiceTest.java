@@ -0,0 +1,70 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.config.UploadConfig;
+import com.parth.Backend.exception.InvalidImageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageProcessingServiceTest {
+	private ThreadPoolExecutor executor;
+	private ImageProcessingService imageProcessingService;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void setUp() {
+		executor = new UploadConfig().imageExecutor(1, 10);
+		imageProcessingService = new ImageProcessingService(executor);
+		ReflectionTestUtils.setField(imageProcessingService, "avatarSize", 256);
+		ReflectionTestUtils.setField(imageProcessingService, "avatarQuality", 0.85f);
+		ReflectionTestUtils.setField(imageProcessingService, "maxSourcePixels", 50_000_000L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void largeImageBecomesSquareJpeg() throws IOException {
+		Path source = tempDir.resolve("avatar.png");
+		ImageIO.write(new BufferedImage(1000, 600, BufferedImage.TYPE_INT_ARGB), "png", source.toFile());
+
+		Path avatar = imageProcessingService.normaliseAvatar(source);
+
+		assertNotEquals(source, avatar);
+		BufferedImage result = ImageIO.read(avatar.toFile());
+		assertEquals(256, result.getWidth());
+		assertEquals(256, result.getHeight());
+		assertTrue(avatar.getFileName().toString().endsWith(".jpg"));
+	}
+
+	@Test
+	void unreadableOrOversizedImageIsRejected() throws IOException {
+		Path unreadable = Files.writeString(tempDir.resolve("avatar.webp"), "not an image");
+		Path oversized = tempDir.resolve("huge.png");
+		ImageIO.write(new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB), "png", oversized.toFile());
+		ReflectionTestUtils.setField(imageProcessingService, "maxSourcePixels", 10_000L);
+
+		assertThrows(InvalidImageException.class, () -> imageProcessingService.normaliseAvatar(unreadable));
+		assertThrows(InvalidImageException.class, () -> imageProcessingService.normaliseAvatar(oversized));
+		assertThrows(InvalidImageException.class, () -> imageProcessingService.checkAvatar(unreadable));
+		assertThrows(InvalidImageException.class, () -> imageProcessingService.checkAvatar(oversized));
+	}
+}
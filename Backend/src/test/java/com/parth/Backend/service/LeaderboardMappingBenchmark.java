@@ -0,0 +1,89 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.dto.LeaderboardEntryDto;
+import com.parth.Backend.dto.LeaderboardEntryView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one leaderboard page of projection rows into DTOs, as
+ * {@link LeaderboardService#getLeaderboard} does after the query returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardMappingBenchmark {
+	private static final int PAGE_SIZE = 20;
+
+	private Page<LeaderboardEntryView> page;
+
+	@Setup
+	public void setUp() {
+		List<LeaderboardEntryView> rows = new ArrayList<>(PAGE_SIZE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			rows.add(new Row((long) i, "user" + i, "https://example.com/" + i + ".png", 1000 - i, i + 1L, 12L, 3L));
+		}
+		page = new PageImpl<>(rows, PageRequest.of(0, PAGE_SIZE), 10_000);
+	}
+
+	@Benchmark
+	public Page<LeaderboardEntryDto> mapGlobalPage() {
+		return page.map(entry -> LeaderboardService.mapToLeaderboardEntry(entry, entry.getRank().intValue(), null));
+	}
+
+	private record Row(Long userId, String username, String avatar, Integer points, Long rank,
+			Long completedChallenges, Long earnedBadges) implements LeaderboardEntryView {
+		@Override
+		public Long getUserId() {
+			return userId;
+		}
+
+		@Override
+		public String getUsername() {
+			return username;
+		}
+
+		@Override
+		public String getAvatar() {
+			return avatar;
+		}
+
+		@Override
+		public Integer getPoints() {
+			return points;
+		}
+
+		@Override
+		public Long getRank() {
+			return rank;
+		}
+
+		@Override
+		public Long getCompletedChallenges() {
+			return completedChallenges;
+		}
+
+		@Override
+		public Long getEarnedBadges() {
+			return earnedBadges;
+		}
+	}
+}
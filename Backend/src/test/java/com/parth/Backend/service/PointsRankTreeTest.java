@@ -0,0 +1,54 @@
+package com.parth.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PointsRankTreeTest {
+
+	@Test
+	void countsUsersWithStrictlyMorePoints() {
+		PointsRankTree tree = new PointsRankTree(4, PointsRankTree.DEFAULT_DENSE_LIMIT);
+		tree.add(100);
+		tree.add(50);
+		tree.add(50);
+		tree.add(0);
+
+		assertEquals(0, tree.countAbove(100));
+		assertEquals(1, tree.countAbove(50));
+		assertEquals(3, tree.countAbove(0));
+		assertEquals(0, tree.countAbove(5000));
+	}
+
+	@Test
+	void growsAndTracksRemovals() {
+		PointsRankTree tree = new PointsRankTree(2, PointsRankTree.DEFAULT_DENSE_LIMIT);
+		tree.add(10);
+		tree.add(70000);
+		tree.remove(10);
+		tree.add(20);
+
+		assertEquals(2, tree.size());
+		assertEquals(1, tree.countAbove(20));
+		assertEquals(2, tree.countAbove(19));
+	}
+
+	@Test
+	void keepsTotalsAboveTheDenseLimitOutOfTheArrays() {
+		PointsRankTree tree = new PointsRankTree(2, 64);
+		tree.add(Integer.MAX_VALUE);
+		tree.add(1 << 30);
+		tree.add(1 << 30);
+		tree.add(63);
+		tree.add(5);
+		tree.remove(1 << 30);
+
+		assertEquals(4, tree.size());
+		assertEquals(0, tree.countAbove(Integer.MAX_VALUE));
+		assertEquals(1, tree.countAbove(1 << 30));
+		assertEquals(2, tree.countAbove(64));
+		assertEquals(2, tree.countAbove(63));
+		assertEquals(3, tree.countAbove(5));
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeekCursorTest {
+
+	@Test
+	void roundTripsTheSortKey() {
+		String cursor = SeekCursor.encode(1250, 42);
+
+		assertArrayEquals(new long[] {1250, 42}, SeekCursor.decode(cursor, 2));
+		assertNull(SeekCursor.decode(null, 2));
+	}
+
+	@Test
+	void rejectsTamperedCursors() {
+		assertThrows(InvalidCursorException.class, () -> SeekCursor.decode("not a cursor!", 2));
+		assertThrows(InvalidCursorException.class, () -> SeekCursor.decode(SeekCursor.encode(7), 2));
+	}
+}
@@ -0,0 +1,79 @@
+package com.parth.Backend.service;
+
+import com.parth.Backend.cache.LocalCacheInvalidationBus;
+import com.parth.Backend.config.CacheConfig;
+import com.parth.Backend.model.Challenge;
+import com.parth.Backend.repository.ChallengeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TestPlanCacheTest {
+	private ChallengeService challengeService;
+	private ChallengeRepo challengeRepo;
+	private CacheManager cacheManager;
+	private TestPlanCache testPlanCache;
+
+	@BeforeEach
+	void setUp() {
+		challengeService = mock(ChallengeService.class);
+		challengeRepo = mock(ChallengeRepo.class);
+		cacheManager = new ConcurrentMapCacheManager(CacheConfig.CHALLENGES);
+		testPlanCache = new TestPlanCache(challengeService, challengeRepo, cacheManager,
+				new SimpleMeterRegistry(), new LocalCacheInvalidationBus());
+		ReflectionTestUtils.setField(testPlanCache, "maxSize", 10L);
+		ReflectionTestUtils.invokeMethod(testPlanCache, "initCache");
+	}
+
+	@Test
+	void reloadsFromTheDatabaseWhenTheCatalogueCacheIsBehind() {
+		Challenge stale = challenge(1, "contains:old");
+		Challenge current = challenge(2, "contains:new");
+		cacheManager.getCache(CacheConfig.CHALLENGES).put(7L, stale);
+		when(challengeService.getChallengeById(7L)).thenReturn(stale);
+		when(challengeRepo.findUncachedById(7L)).thenReturn(Optional.of(current));
+
+		TestPlan plan = testPlanCache.planFor(7L, 2);
+		TestPlan again = testPlanCache.planFor(7L, 2);
+
+		assertEquals(2, plan.version());
+		assertEquals(new TestCaseRule.Contains("new"), plan.rules().get(0));
+		assertNull(cacheManager.getCache(CacheConfig.CHALLENGES).get(7L));
+		// The reloaded plan is cached, so later submissions don't recompile
+		assertEquals(plan, again);
+		verify(challengeService, times(1)).getChallengeById(7L);
+		verify(challengeRepo, times(1)).findUncachedById(7L);
+	}
+
+	@Test
+	void gradesAgainstANewerCatalogueCopyWithoutReloading() {
+		Challenge newer = challenge(3, "contains:print");
+		when(challengeService.getChallengeById(7L)).thenReturn(newer);
+
+		TestPlan plan = testPlanCache.planFor(7L, 2);
+
+		assertEquals(3, plan.version());
+		verify(challengeRepo, times(0)).findUncachedById(7L);
+	}
+
+	private static Challenge challenge(long version, String testCase) {
+		Challenge challenge = new Challenge();
+		challenge.setId(7L);
+		challenge.setVersion(version);
+		challenge.setTestCases(List.of(testCase));
+		return challenge;
+	}
+}